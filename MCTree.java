@@ -1,14 +0,0 @@
-package edu.iastate.cs472.proj2; 
-
-/** 
- * This class requires no implementation.  You may use it to create a Monte Carlo search tree, or 
- * you may get the work done using the MCNode class. 
- * 
- * @author Hrishikesh Uchake
- *
- */
-public class MCTree 
-{
-	MCNode root;
-	int size;
-}
@@ -0,0 +1,182 @@
+package edu.iastate.cs472.proj2;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH micro-benchmarks for move generation, evaluation and search, giving
+ * numbers to compare before and after an engine change.
+ *
+ * Usage: java -jar benchmarks/target/benchmarks.jar [regexp] -prof gc
+ *
+ * runs the benchmarks whose names match the regular expression (all of
+ * them by default).  Each reports the average time per operation; the gc
+ * profiler adds the bytes each operation allocates (gc.alloc.rate.norm)
+ * and the allocation rate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Benchmarks {
+
+    /**
+     * A position for the benchmarks that run on each of them, BLACK to
+     * move.
+     */
+    @State(Scope.Thread)
+    public static class Position {
+
+        @Param({"opening", "middlegame", "multiJump", "kingEndgame"})
+        public String name;
+
+        CheckersData board;
+        MCNode node;
+        Random random;
+
+        @Setup
+        public void setUp() {
+            switch (name) {
+                case "opening": board = new CheckersData(); break;
+                case "middlegame": board = middlegame(); break;
+                case "multiJump": board = multiJump(); break;
+                default: board = kingEndgame(); break;
+            }
+            node = new MCNode(board, true);
+            random = new Random(472);
+        }
+    }
+
+    /**
+     * The engines and positions of the benchmarks that use one position.
+     */
+    @State(Scope.Thread)
+    public static class Engines {
+
+        CheckersData middlegame;
+        CheckersData multiJump;
+        AlphaBetaSearch evaluator;
+        MonteCarloTreeSearch mcts;
+        AlphaBetaSearch search;
+        CheckersMove[] legalMoves;
+
+        @Setup
+        public void setUp() {
+            middlegame = middlegame();
+            multiJump = multiJump();
+            evaluator = new AlphaBetaSearch(1);
+            mcts = new MonteCarloTreeSearch();
+
+            // Each search starts from an empty table, so every run does the
+            // same work; the table is small so that clearing it costs little
+            search = new AlphaBetaSearch(4);
+            search.setPrintBoard(false);
+            search.setMoveTime(0);
+            search.setDepthLimit(6);
+            search.setCheckersData(middlegame);
+            legalMoves = middlegame.getLegalMoves(CheckersData.BLACK);
+        }
+    }
+
+    @Benchmark
+    public CheckersMove[] getLegalMoves(Position position) {
+        return position.board.getLegalMoves(CheckersData.BLACK);
+    }
+
+    @Benchmark
+    public CheckersMove[] getLegalJumpsFrom(Engines engines) {
+        return engines.multiJump.getLegalJumpsFrom(CheckersData.BLACK, 0, 3);
+    }
+
+    @Benchmark
+    public double evaluate(Engines engines) {
+        return engines.evaluator.evaluate(engines.middlegame);
+    }
+
+    @Benchmark
+    public double simulation(Engines engines, Position position) {
+        return engines.mcts.simulation(position.node, position.random);
+    }
+
+    @Benchmark
+    public CheckersMove searchDepth6(Engines engines) {
+        engines.search.newGame();
+        return engines.search.makeMove(engines.legalMoves);
+    }
+
+    /**
+     * A position from random play, BLACK to move: the third position with
+     * a choice of moves found at plies 7, 15, 23, ... of random games.
+     */
+    static CheckersData middlegame() {
+        Random random = new Random(472);
+        int found = 0;
+        while (true) {
+            CheckersData board = new CheckersData();
+            int player = CheckersData.RED;
+            for (int ply = 0; ply < 60; ply++) {
+                CheckersMove[] moves = board.getLegalMoves(player);
+                if (moves == null) {
+                    break;
+                }
+                if (player == CheckersData.BLACK && ply % 8 == 7 && moves.length > 1 && ++found == 3) {
+                    return board;
+                }
+                board.makeMove(moves[random.nextInt(moves.length)]);
+                player = player == CheckersData.RED ? CheckersData.BLACK : CheckersData.RED;
+            }
+        }
+    }
+
+    /**
+     * A position where BLACK has several multi-jumps, the man on (0, 3)
+     * having a choice of branches four jumps deep.
+     */
+    static CheckersData multiJump() {
+        CheckersData board = empty();
+        board.setPieceAt(0, 3, CheckersData.BLACK);
+        board.setPieceAt(0, 7, CheckersData.BLACK);
+        int[][] red = {{1, 2}, {1, 4}, {1, 6}, {3, 2}, {3, 4}, {3, 6}, {5, 2}, {5, 4}, {5, 6}};
+        for (int[] square : red) {
+            board.setPieceAt(square[0], square[1], CheckersData.RED);
+        }
+        return board;
+    }
+
+    /**
+     * A quiet endgame of three kings against three.
+     */
+    static CheckersData kingEndgame() {
+        CheckersData board = empty();
+        board.setPieceAt(1, 2, CheckersData.BLACK_KING);
+        board.setPieceAt(3, 4, CheckersData.BLACK_KING);
+        board.setPieceAt(2, 7, CheckersData.BLACK_KING);
+        board.setPieceAt(6, 1, CheckersData.RED_KING);
+        board.setPieceAt(7, 6, CheckersData.RED_KING);
+        board.setPieceAt(5, 0, CheckersData.RED_KING);
+        return board;
+    }
+
+    private static CheckersData empty() {
+        CheckersData board = new CheckersData();
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                board.setPieceAt(row, col, CheckersData.EMPTY);
+            }
+        }
+        return board;
+    }
+}
@@ -0,0 +1,218 @@
+package edu.iastate.cs472.proj2;
+
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Plays games between two searches without the GUI, several at a time on
+ * a thread pool, and reports the result and the Elo difference.
+ *
+ * Usage: java edu.iastate.cs472.proj2.Arena [engineA] [engineB] [games] [moveTime] [threads] [openingPlies]
+ *
+ * An engine is "alphabeta", "mcts" or the name of an AdversarialSearch
+ * subclass with a public no-argument constructor.  The defaults are
+ * alphabeta against mcts, 100 games, 100 ms per move, one thread per
+ * processor and 4 opening plies.  A move time of 0 leaves each search
+ * to its own limit.
+ *
+ * Games are played in pairs from the same opening, reached by random
+ * moves from the starting position, with the engines changing colors
+ * between the two games.  A search always plays BLACK, so the engine
+ * playing RED is given the mirrored position (see CheckersData.mirror())
+ * and its move is mirrored back.  A game is drawn after MAX_PLIES plies
+ * or when a position occurs for the third time.
+ */
+public class Arena {
+
+    private static final int MAX_PLIES = 200;    // Plies after the opening before a draw
+    private static final int TABLE_MB = 16;      // Transposition table of each AlphaBetaSearch
+
+    /*  Results of a game. */
+    static final int
+            RED_WINS = 0,
+            BLACK_WINS = 1,
+            DRAW = 2;
+
+    // Totals over all games, guarded by the class lock
+    private static int winsA, draws, lossesA;
+    private static final long[] thinkNanos = new long[2];  // [A, B]
+    private static final long[] movesMade = new long[2];   // [A, B]
+
+    public static void main(String[] args) throws InterruptedException {
+        String engineA = args.length > 0 ? args[0] : "alphabeta";
+        String engineB = args.length > 1 ? args[1] : "mcts";
+        int games = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        long moveTime = args.length > 3 ? Long.parseLong(args[3]) : 100;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+        int openingPlies = args.length > 5 ? Integer.parseInt(args[5]) : 4;
+        newEngine(engineA);  // Fail before starting if a name is wrong
+        newEngine(engineB);
+
+        System.out.println(engineA + " vs " + engineB + ": " + games + " games, " + moveTime
+                + " ms per move, " + threads + " threads");
+        AtomicInteger next = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        Future<?>[] workers = new Future<?>[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = pool.submit(() -> {
+                // Each thread keeps its own pair of engines for all its games
+                AdversarialSearch[] engines = {newEngine(engineA), newEngine(engineB)};
+                for (AdversarialSearch engine : engines) {
+                    engine.setPrintBoard(false);
+                    engine.setMoveTime(moveTime);
+                }
+                int game;
+                while ((game = next.getAndIncrement()) < games) {
+                    // Games 2k and 2k + 1 share an opening; A is RED in the first
+                    CheckersData opening = randomOpening(openingPlies, new Random(472L + game / 2));
+                    int redEngine = game % 2;
+                    long[] nanos = new long[2];
+                    int[] moves = new int[2];
+                    // Start both engines afresh, so that the second game of an
+                    // opening does not reuse what they learned in the first
+                    for (AdversarialSearch engine : engines) {
+                        engine.newGame();
+                    }
+                    int result = playGame(opening, engines, redEngine, nanos, moves);
+                    record(result, redEngine, nanos, moves);
+                }
+            });
+        }
+        for (Future<?> worker : workers) {
+            try {
+                worker.get();
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e.getCause());
+            }
+        }
+        pool.shutdown();
+        report(engineA, engineB);
+    }
+
+    /**
+     * Create the named engine.
+     */
+    static AdversarialSearch newEngine(String name) {
+        switch (name) {
+        case "alphabeta": return new AlphaBetaSearch(TABLE_MB);
+        case "mcts": return new MonteCarloTreeSearch();
+        default:
+            try {
+                return (AdversarialSearch) Class.forName(name).getConstructor().newInstance();
+            } catch (ReflectiveOperationException | ClassCastException e) {
+                throw new IllegalArgumentException("Unknown engine: " + name, e);
+            }
+        }
+    }
+
+    /**
+     * Play one game from the given position, RED to move, and return
+     * RED_WINS, BLACK_WINS or DRAW.  engines[redEngine] plays RED and the
+     * other engine BLACK.  The time each engine spent and the number of
+     * moves it made are added to nanos and moves.
+     */
+    static int playGame(CheckersData opening, AdversarialSearch[] engines, int redEngine,
+                        long[] nanos, int[] moves) {
+        CheckersData board = new CheckersData(opening);
+        HashMap<Long, Integer> seen = new HashMap<Long, Integer>();
+        int player = CheckersData.RED;
+        for (int ply = 0; ply < MAX_PLIES; ply++) {
+            if (seen.merge(board.zobrist, 1, Integer::sum) == 3) {
+                return DRAW;
+            }
+            if (board.getLegalMoves(player) == null) {
+                return player == CheckersData.RED ? BLACK_WINS : RED_WINS;
+            }
+
+            int e = player == CheckersData.RED ? redEngine : 1 - redEngine;
+            CheckersData view = player == CheckersData.RED ? board.mirror() : new CheckersData(board);
+            engines[e].setCheckersData(view);
+            CheckersMove[] legalMoves = view.getLegalMoves(CheckersData.BLACK);
+            long start = System.nanoTime();
+            CheckersMove move = engines[e].makeMove(legalMoves);
+            nanos[e] += System.nanoTime() - start;
+            moves[e]++;
+
+            board.makeMove(player == CheckersData.RED ? move.mirror() : move);
+            player = player == CheckersData.RED ? CheckersData.BLACK : CheckersData.RED;
+        }
+        return DRAW;
+    }
+
+    /**
+     * Return the position after the given number of random plies from the
+     * start of the game, rounded up to an even number so that RED is to
+     * move.  If a game ends before that, another one is tried.
+     */
+    static CheckersData randomOpening(int plies, Random random) {
+        plies += plies % 2;
+        while (true) {
+            CheckersData board = new CheckersData();
+            int player = CheckersData.RED;
+            int ply = 0;
+            for (; ply < plies; ply++) {
+                CheckersMove[] moves = board.getLegalMoves(player);
+                if (moves == null) {
+                    break;
+                }
+                board.makeMove(moves[random.nextInt(moves.length)]);
+                player = player == CheckersData.RED ? CheckersData.BLACK : CheckersData.RED;
+            }
+            if (ply == plies) {
+                return board;
+            }
+        }
+    }
+
+    private static synchronized void record(int result, int redEngine, long[] nanos, int[] moves) {
+        if (result == DRAW) {
+            draws++;
+        } else if ((result == RED_WINS) == (redEngine == 0)) {
+            winsA++;
+        } else {
+            lossesA++;
+        }
+        for (int e = 0; e < 2; e++) {
+            thinkNanos[e] += nanos[e];
+            movesMade[e] += moves[e];
+        }
+    }
+
+    private static synchronized void report(String engineA, String engineB) {
+        int games = winsA + draws + lossesA;
+        double score = (winsA + 0.5 * draws) / games;
+        // Standard deviation of one game's score, then of the mean score
+        double variance = (winsA * sq(1 - score) + draws * sq(0.5 - score) + lossesA * sq(score)) / games;
+        double error = 1.96 * Math.sqrt(variance / games);
+
+        System.out.printf("W/D/L for %s: %d/%d/%d, score %.1f%%%n",
+                engineA, winsA, draws, lossesA, 100 * score);
+        System.out.printf("Elo difference: %+.1f (95%% interval %+.1f to %+.1f)%n",
+                elo(score), elo(score - error), elo(score + error));
+        String[] names = {engineA, engineB};
+        for (int e = 0; e < 2; e++) {
+            System.out.printf("%s: %.1f ms per move over %d moves%n",
+                    names[e], thinkNanos[e] / 1e6 / Math.max(1, movesMade[e]), movesMade[e]);
+        }
+    }
+
+    /**
+     * Return the Elo difference that gives the expected score, infinite
+     * for a score of 0 or 1.
+     */
+    static double elo(double score) {
+        if (score <= 0 || score >= 1) {
+            return score <= 0 ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        }
+        return -400 * Math.log10(1 / score - 1);
+    }
+
+    private static double sq(double x) {
+        return x * x;
+    }
+}
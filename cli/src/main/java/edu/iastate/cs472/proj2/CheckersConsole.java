@@ -0,0 +1,94 @@
+package edu.iastate.cs472.proj2;
+
+import java.util.Random;
+import java.util.Scanner;
+
+/**
+ * Play checkers against the AI in a terminal, without the Swing window.
+ * Only CheckersData, CheckersMove and the searches are used, so this runs
+ * on a headless machine and never loads AWT.
+ *
+ * Usage: java edu.iastate.cs472.proj2.CheckersConsole [key] [moveTime]
+ *
+ * The key chooses the AI as in Checkers: 1 (alpha-beta, the default),
+ * 2 (MCTS) or 3 (a random choice of the two for each move).  moveTime is
+ * the time the AI may take per move in milliseconds; without it each
+ * search uses its own default.  The human plays RED and moves first,
+ * choosing each move by its number in the list of legal moves.
+ */
+public class CheckersConsole {
+
+    public static void main(String[] args) {
+        int aiKey = args.length > 0 ? Integer.parseInt(args[0]) : 1;
+        if (aiKey < 1 || aiKey > 3) {
+            throw new IllegalArgumentException("The key should be 1 (alpha-beta), 2 (MCTS) or 3 (random)");
+        }
+        AdversarialSearch player_1 = new AlphaBetaSearch();      // AI player, Alpha-beta
+        AdversarialSearch player_2 = new MonteCarloTreeSearch(); // MCTS
+        for (AdversarialSearch player : new AdversarialSearch[] {player_1, player_2}) {
+            player.setPrintBoard(false);
+            if (args.length > 1) {
+                player.setMoveTime(Long.parseLong(args[1]));
+            }
+        }
+        Random rand = new Random();
+        Scanner stdin = new Scanner(System.in);
+        CheckersData board = new CheckersData();
+
+        while (true) {
+            System.out.println(board);
+            CheckersMove[] legalMoves = board.getLegalMoves(CheckersData.RED);
+            if (legalMoves == null) {
+                System.out.println("RED has no moves.  BLACK wins.");
+                return;
+            }
+            CheckersMove move = readMove(stdin, legalMoves);
+            if (move == null) {
+                System.out.println("RED resigns.  BLACK wins.");
+                return;
+            }
+            board.makeMove(move);
+
+            legalMoves = board.getLegalMoves(CheckersData.BLACK);
+            if (legalMoves == null) {
+                System.out.println(board);
+                System.out.println("BLACK has no moves.  RED wins.");
+                return;
+            }
+            AdversarialSearch player = aiKey == 1 || (aiKey == 3 && rand.nextInt(2) == 1) ? player_1 : player_2;
+            player.setCheckersData(board);
+            CheckersMove moveAI = player.makeMove(legalMoves);
+            System.out.println("BLACK plays " + moveAI);
+            board.makeMove(moveAI);
+        }
+    }
+
+    /**
+     * List the legal moves and return the one the user picks, or null if
+     * the user resigns or the input ends.
+     */
+    private static CheckersMove readMove(Scanner stdin, CheckersMove[] legalMoves) {
+        for (int i = 0; i < legalMoves.length; i++) {
+            System.out.println("  " + (i + 1) + ": " + legalMoves[i]);
+        }
+        while (true) {
+            System.out.print("RED:  Enter a move number (or r to resign): ");
+            if (!stdin.hasNext()) {
+                return null;
+            }
+            String input = stdin.next();
+            if (input.equalsIgnoreCase("r")) {
+                return null;
+            }
+            try {
+                int choice = Integer.parseInt(input);
+                if (choice >= 1 && choice <= legalMoves.length) {
+                    return legalMoves[choice - 1];
+                }
+                System.out.println("\tThe entered number should be (1-" + legalMoves.length + ")");
+            } catch (NumberFormatException e) {
+                System.out.println("\tInvalid input type (must be an integer)");
+            }
+        }
+    }
+}
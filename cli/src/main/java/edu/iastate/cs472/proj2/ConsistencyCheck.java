@@ -0,0 +1,355 @@
+package edu.iastate.cs472.proj2;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Differential checks of the board code against simple reference
+ * versions, run on every position of random games, so that a change to
+ * the board code can be checked before it is trusted.
+ *
+ * Usage: java edu.iastate.cs472.proj2.ConsistencyCheck [games] [seed]
+ *
+ * plays the given number of random games (default 3000) from the start
+ * of the game with the given seed (default 472) and checks in every
+ * position, for both players:
+ *
+ * - moves: getLegalMoves() and getLegalJumpsFrom() give the same moves in
+ *   the same order as a generator scanning an 8x8 array, the way
+ *   CheckersData worked before it kept bitboards, and each packed move of
+ *   generateMoves() starts and ends on the same squares as its
+ *   CheckersMove, leads to the same position and key, and is undone by
+ *   unmakeMove()
+ * - countMoves(): the number of moves it counts without generating them
+ *   equals the number generateMoves() generates
+ * - evaluation: AlphaBetaSearch.evaluate(), which reads the positional
+ *   sum CheckersData keeps as moves are made and unmade, agrees with the
+ *   evaluation recomputed square by square, for the position and for its
+ *   mirror()
+ *
+ * The number of positions and of failures is printed, with the first
+ * failures in full, and the exit status is 1 if there were any.
+ */
+public class ConsistencyCheck {
+
+    private static final int MAX_REPORTED = 10;  // Failures printed in full
+
+    private static final double TOLERANCE = 1e-12;  // For evaluations
+
+    private final long[] moves = new long[CheckersData.MAX_MOVES];
+    private final AlphaBetaSearch evaluator = new AlphaBetaSearch(1);
+    private long positions;
+    private long failures;
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 3000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 472;
+        ConsistencyCheck check = new ConsistencyCheck();
+        check.run(games, new Random(seed));
+        System.out.println(check.positions + " positions checked, " + check.failures + " failures");
+        if (check.failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Play the games with random moves, checking each position.
+     */
+    void run(int games, Random random) {
+        for (int game = 0; game < games; game++) {
+            CheckersData board = new CheckersData();
+            int player = CheckersData.RED;
+            for (int ply = 0; ply < 200; ply++) {
+                checkPosition(board);
+                int count = board.generateMoves(player, moves);
+                if (count == 0) {
+                    break;
+                }
+                // Play half the moves through each makeMove()
+                if (random.nextBoolean()) {
+                    board.makeMove(moves[random.nextInt(count)]);
+                } else {
+                    CheckersMove[] legalMoves = board.getLegalMoves(player);
+                    board.makeMove(legalMoves[random.nextInt(legalMoves.length)]);
+                }
+                player = player == CheckersData.RED ? CheckersData.BLACK : CheckersData.RED;
+            }
+        }
+    }
+
+    private void checkPosition(CheckersData board) {
+        positions++;
+        for (int player : new int[] {CheckersData.RED, CheckersData.BLACK}) {
+            checkMoves(board, player);
+        }
+        checkEvaluation(board);
+        checkEvaluation(board.mirror());
+    }
+
+    /**
+     * Compare the moves of player with the reference generator and the
+     * packed moves with the CheckersMove objects.
+     */
+    private void checkMoves(CheckersData board, int player) {
+        ReferenceBoard reference = new ReferenceBoard(board);
+        ArrayList<CheckersMove> expected = reference.legalMoves(player);
+        CheckersMove[] legalMoves = board.getLegalMoves(player);
+        if (!sameMoves(legalMoves, expected)) {
+            fail(board, "getLegalMoves(" + player + ") gave " + list(legalMoves) + ", expected " + expected);
+            return;
+        }
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                int piece = board.pieceAt(row, col);
+                if (piece == player || piece == player + 1) {
+                    CheckersMove[] jumps = board.getLegalJumpsFrom(player, row, col);
+                    ArrayList<CheckersMove> expectedJumps = reference.jumpsFrom(player, row, col);
+                    if (!sameMoves(jumps, expectedJumps)) {
+                        fail(board, "getLegalJumpsFrom(" + player + ", " + row + ", " + col + ") gave "
+                                + list(jumps) + ", expected " + expectedJumps);
+                    }
+                }
+            }
+        }
+
+        int count = board.generateMoves(player, moves);
+        if (count != expected.size()) {
+            fail(board, "generateMoves(" + player + ") gave " + count + " moves, expected " + expected.size());
+            return;
+        }
+        int counted = board.countMoves(player);
+        if (counted != count) {
+            fail(board, "countMoves(" + player + ") gave " + counted + ", expected " + count);
+        }
+        for (int i = 0; i < count; i++) {
+            CheckersMove move = expected.get(i);
+            int last = move.rows.size() - 1;
+            if (CheckersData.moveFrom(moves[i]) != CheckersData.square(move.rows.get(0), move.cols.get(0))
+                    || CheckersData.moveTo(moves[i]) != CheckersData.square(move.rows.get(last), move.cols.get(last))) {
+                fail(board, "packed move " + i + " does not match " + move);
+                continue;
+            }
+            CheckersData after = new CheckersData(board);
+            after.makeMove(move);
+            CheckersData packed = new CheckersData(board);
+            int undo = packed.makeMove(moves[i]);
+            if (!packed.samePosition(after) || packed.zobrist != after.zobrist) {
+                fail(board, "packed move " + i + " (" + move + ") leads to another position");
+            }
+            packed.unmakeMove(moves[i], undo);
+            if (!packed.samePosition(board) || packed.zobrist != board.zobrist) {
+                fail(board, "unmakeMove() of " + move + " does not restore the position");
+            }
+        }
+    }
+
+    /**
+     * Compare the evaluation of the board with the one recomputed from
+     * its squares.
+     */
+    private void checkEvaluation(CheckersData board) {
+        double value = evaluator.evaluate(board);
+        double expected = referenceEvaluate(board);
+        if (Math.abs(value - expected) > TOLERANCE) {
+            fail(board, "evaluate() gave " + value + ", expected " + expected
+                    + " (positional sum " + board.position + ")");
+        }
+    }
+
+    /**
+     * The evaluation as AlphaBetaSearch computed it before CheckersData
+     * kept the positional sum: a scan of every square, with the moves
+     * counted by the reference generator.
+     */
+    static double referenceEvaluate(CheckersData state) {
+        ReferenceBoard reference = new ReferenceBoard(state);
+        int blackMoves = reference.legalMoves(CheckersData.BLACK).size();
+        int redMoves = reference.legalMoves(CheckersData.RED).size();
+        if (blackMoves == 0 && redMoves == 0) {
+            return 0;
+        }
+        if (blackMoves == 0) {
+            return -2;
+        }
+        if (redMoves == 0) {
+            return 2;
+        }
+
+        int blackMen = 0, blackKings = 0, redMen = 0, redKings = 0;
+        double blackPosition = 0, redPosition = 0;
+        for (int row = 0; row < 8; row++) {
+            for (int col = 0; col < 8; col++) {
+                int piece = state.pieceAt(row, col);
+                if (piece == CheckersData.BLACK) {
+                    blackMen++;
+                    blackPosition += row * 0.01;
+                } else if (piece == CheckersData.BLACK_KING) {
+                    blackKings++;
+                    blackPosition += (1.0 - Math.abs(3.5 - row) / 3.5) * 0.02;
+                    blackPosition += (1.0 - Math.abs(3.5 - col) / 3.5) * 0.02;
+                } else if (piece == CheckersData.RED) {
+                    redMen++;
+                    redPosition += (7 - row) * 0.01;
+                } else if (piece == CheckersData.RED_KING) {
+                    redKings++;
+                    redPosition += (1.0 - Math.abs(3.5 - row) / 3.5) * 0.02;
+                    redPosition += (1.0 - Math.abs(3.5 - col) / 3.5) * 0.02;
+                }
+            }
+        }
+        double score = (blackMen - redMen) * 0.3 + (blackKings - redKings) * 0.5;
+        score += blackPosition - redPosition;
+        score += (blackMoves - redMoves) * 0.02;
+        return Math.tanh(score);
+    }
+
+    private static boolean sameMoves(CheckersMove[] moves, ArrayList<CheckersMove> expected) {
+        if (moves == null) {
+            return expected.isEmpty();
+        }
+        if (moves.length != expected.size()) {
+            return false;
+        }
+        for (int i = 0; i < moves.length; i++) {
+            if (!moves[i].rows.equals(expected.get(i).rows) || !moves[i].cols.equals(expected.get(i).cols)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String list(CheckersMove[] moves) {
+        return moves == null ? "null" : java.util.Arrays.toString(moves);
+    }
+
+    private void fail(CheckersData board, String message) {
+        failures++;
+        if (failures <= MAX_REPORTED) {
+            System.out.println(message);
+            System.out.println(board);
+        }
+    }
+
+    /**
+     * The move generator of CheckersData before bitboards: the board as an
+     * 8x8 array, scanned square by square, with jump sequences followed on
+     * copies of the array.
+     */
+    static class ReferenceBoard {
+
+        // Up-left, up-right, down-left, down-right
+        private static final int[][] DIRECTIONS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+
+        private final int[][] board = new int[8][8];
+
+        ReferenceBoard(CheckersData data) {
+            for (int row = 0; row < 8; row++) {
+                for (int col = 0; col < 8; col++) {
+                    board[row][col] = data.pieceAt(row, col);
+                }
+            }
+        }
+
+        /**
+         * Return the legal moves of player: the jumps if there are any,
+         * otherwise the simple moves, each piece's in the order up-left,
+         * up-right, down-left, down-right.
+         */
+        ArrayList<CheckersMove> legalMoves(int player) {
+            ArrayList<CheckersMove> moves = new ArrayList<CheckersMove>();
+            for (int row = 0; row < 8; row++) {
+                for (int col = 0; col < 8; col++) {
+                    if (owns(player, board[row][col])) {
+                        moves.addAll(jumpsFrom(player, row, col));
+                    }
+                }
+            }
+            if (!moves.isEmpty()) {
+                return moves;
+            }
+            for (int row = 0; row < 8; row++) {
+                for (int col = 0; col < 8; col++) {
+                    if (owns(player, board[row][col])) {
+                        for (int[] dir : DIRECTIONS) {
+                            int toRow = row + dir[0], toCol = col + dir[1];
+                            if (onBoard(toRow, toCol) && board[toRow][toCol] == CheckersData.EMPTY
+                                    && forward(board[row][col], row, toRow)) {
+                                moves.add(new CheckersMove(row, col, toRow, toCol));
+                            }
+                        }
+                    }
+                }
+            }
+            return moves;
+        }
+
+        /**
+         * Return every complete jump sequence of the piece on (row, col).
+         */
+        ArrayList<CheckersMove> jumpsFrom(int player, int row, int col) {
+            ArrayList<CheckersMove> jumps = new ArrayList<CheckersMove>();
+            jumpsFrom(player, row, col, new CheckersMove(), jumps, board);
+            return jumps;
+        }
+
+        private void jumpsFrom(int player, int row, int col, CheckersMove current,
+                               ArrayList<CheckersMove> jumps, int[][] position) {
+            boolean found = false;
+            for (int[] dir : DIRECTIONS) {
+                int toRow = row + 2 * dir[0], toCol = col + 2 * dir[1];
+                int overRow = row + dir[0], overCol = col + dir[1];
+                int piece = position[row][col];
+                if (!onBoard(toRow, toCol) || position[toRow][toCol] != CheckersData.EMPTY
+                        || !owns(opponent(player), position[overRow][overCol]) || !forward(piece, row, toRow)) {
+                    continue;
+                }
+                found = true;
+                CheckersMove move = current.clone();
+                if (move.rows.isEmpty()) {
+                    move.addMove(row, col);
+                }
+                move.addMove(toRow, toCol);
+                int[][] next = new int[8][];
+                for (int r = 0; r < 8; r++) {
+                    next[r] = position[r].clone();
+                }
+                next[row][col] = CheckersData.EMPTY;
+                next[overRow][overCol] = CheckersData.EMPTY;
+                next[toRow][toCol] = crowned(piece, toRow);
+                jumpsFrom(player, toRow, toCol, move, jumps, next);
+            }
+            if (!found && !current.rows.isEmpty()) {
+                jumps.add(current);
+            }
+        }
+
+        private static boolean onBoard(int row, int col) {
+            return row >= 0 && row < 8 && col >= 0 && col < 8;
+        }
+
+        private static boolean owns(int player, int piece) {
+            return piece == player || piece == player + 1;
+        }
+
+        private static int opponent(int player) {
+            return player == CheckersData.RED ? CheckersData.BLACK : CheckersData.RED;
+        }
+
+        /**
+         * Men move only forward: RED up the board, BLACK down.
+         */
+        private static boolean forward(int piece, int row, int toRow) {
+            return !(piece == CheckersData.RED && toRow > row) && !(piece == CheckersData.BLACK && toRow < row);
+        }
+
+        private static int crowned(int piece, int row) {
+            if (piece == CheckersData.RED && row == 0) {
+                return CheckersData.RED_KING;
+            }
+            if (piece == CheckersData.BLACK && row == 7) {
+                return CheckersData.BLACK_KING;
+            }
+            return piece;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package edu.iastate.cs472.proj2;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Counts the move paths of a given length from a position (perft), using
+ * getLegalMoves() and makeMove(CheckersMove) only, as a check on move
+ * generation and a measure of its speed.
+ *
+ * Usage: java edu.iastate.cs472.proj2.Perft [depth] [threads] [divide] [position]
+ *
+ * The counts for depths 1 to depth (default 8) are printed with the time
+ * each took.  With more than one thread (default 1) the root moves are
+ * shared out among the threads.  "divide" also prints the count below
+ * each root move at the last depth.  The position defaults to the start
+ * of the game; it can be given as 32 characters, one per playable
+ * square in row-major order ('.' empty, 'r'/'R' red man/king, 'b'/'B'
+ * black man/king), then '/' and 'r' or 'b' for the side to move.
+ */
+public class Perft {
+
+    public static void main(String[] args) throws InterruptedException {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 8;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        boolean divide = false;
+        CheckersData board = new CheckersData();
+        int player = CheckersData.RED;
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].equals("divide")) {
+                divide = true;
+            } else {
+                board = parse(args[i]);
+                player = args[i].endsWith("/b") ? CheckersData.BLACK : CheckersData.RED;
+            }
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        System.out.println("depth          nodes        ms      nodes/s");
+        for (int d = 1; d <= depth; d++) {
+            long start = System.nanoTime();
+            long[] counts = divide(board, player, d, pool);
+            long millis = (System.nanoTime() - start) / 1000000;
+            long nodes = 0;
+            for (long count : counts) {
+                nodes += count;
+            }
+            System.out.printf("%5d %14d %9d %12.0f%n", d, nodes, millis, nodes * 1000.0 / Math.max(1, millis));
+
+            if (divide && d == depth) {
+                CheckersMove[] moves = board.getLegalMoves(player);
+                for (int i = 0; moves != null && i < moves.length; i++) {
+                    System.out.printf("%-30s %d%n", moves[i], counts[i]);
+                }
+            }
+        }
+        pool.shutdown();
+    }
+
+    /**
+     * Return the number of move paths of the given length from the board
+     * with player to move.  Paths that end early because a player cannot
+     * move are not counted.
+     */
+    static long perft(CheckersData board, int player, int depth) {
+        CheckersMove[] moves = board.getLegalMoves(player);
+        if (moves == null) {
+            return 0;
+        }
+        if (depth == 1) {
+            return moves.length; // Bulk count: no need to make the last moves
+        }
+        int opponent = player == CheckersData.RED ? CheckersData.BLACK : CheckersData.RED;
+        long nodes = 0;
+        for (CheckersMove move : moves) {
+            CheckersData next = new CheckersData(board);
+            next.makeMove(move);
+            nodes += perft(next, opponent, depth - 1);
+        }
+        return nodes;
+    }
+
+    /**
+     * Return the perft count below each root move, in the order of
+     * getLegalMoves(), running the root moves as tasks on the pool.
+     */
+    static long[] divide(CheckersData board, int player, int depth, ExecutorService pool)
+            throws InterruptedException {
+        CheckersMove[] moves = board.getLegalMoves(player);
+        if (moves == null) {
+            return new long[0];
+        }
+        int opponent = player == CheckersData.RED ? CheckersData.BLACK : CheckersData.RED;
+        ArrayList<Future<Long>> tasks = new ArrayList<Future<Long>>();
+        for (CheckersMove move : moves) {
+            CheckersData next = new CheckersData(board);
+            next.makeMove(move);
+            tasks.add(pool.submit(() -> depth == 1 ? 1L : perft(next, opponent, depth - 1)));
+        }
+        long[] counts = new long[moves.length];
+        for (int i = 0; i < counts.length; i++) {
+            try {
+                counts[i] = tasks.get(i).get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("perft task failed", e.getCause());
+            }
+        }
+        return counts;
+    }
+
+    /**
+     * Create the board described by the first 32 characters of position.
+     */
+    static CheckersData parse(String position) {
+        if (position.length() < 32) {
+            throw new IllegalArgumentException("Position needs 32 squares: " + position);
+        }
+        CheckersData board = new CheckersData();
+        for (int sq = 0; sq < 32; sq++) {
+            int row = sq / 4;
+            int piece;
+            switch (position.charAt(sq)) {
+            case '.': piece = CheckersData.EMPTY; break;
+            case 'r': piece = CheckersData.RED; break;
+            case 'R': piece = CheckersData.RED_KING; break;
+            case 'b': piece = CheckersData.BLACK; break;
+            case 'B': piece = CheckersData.BLACK_KING; break;
+            default: throw new IllegalArgumentException("Bad square '" + position.charAt(sq) + "' in " + position);
+            }
+            board.setPieceAt(row, CheckersData.column(sq), piece);
+        }
+        return board;
+    }
+}
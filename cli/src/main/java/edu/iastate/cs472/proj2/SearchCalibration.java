@@ -0,0 +1,81 @@
+package edu.iastate.cs472.proj2;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * Fits the ProbCut parameters of AlphaBetaSearch: how well a shallow
+ * search predicts a deeper one.
+ *
+ * Usage: java edu.iastate.cs472.proj2.SearchCalibration [positions] [depth] [log]
+ *
+ * Each of the positions (default 1000), from random games and with either
+ * side to move, is searched to the given depth (default 10) and to
+ * PROBCUT_REDUCTION plies less, without ProbCut.  Positions whose result
+ * is decided are left out.  The deep value is fitted to the shallow one
+ * by least squares, deep = a * shallow + b, and a, b and the standard
+ * deviation of the residuals are printed for the constants in
+ * AlphaBetaSearch.  With a log file, each pair of values is also written
+ * to it, one "shallow,deep" line per position.
+ */
+public class SearchCalibration {
+
+    public static void main(String[] args) throws IOException {
+        int positions = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        PrintWriter log = args.length > 2 ? new PrintWriter(Files.newBufferedWriter(Paths.get(args[2]))) : null;
+        int shallowDepth = depth - AlphaBetaSearch.PROBCUT_REDUCTION;
+        if (shallowDepth < 1) {
+            throw new IllegalArgumentException("Depth must be more than " + AlphaBetaSearch.PROBCUT_REDUCTION);
+        }
+
+        AlphaBetaSearch search = new AlphaBetaSearch(16);
+        Random random = new Random(472);
+        double sumX = 0, sumY = 0, sumXX = 0, sumXY = 0, sumYY = 0;
+        int n = 0;
+        while (n < positions) {
+            // A position 4 to 40 plies into a random game, either side to move
+            CheckersData board = Arena.randomOpening(4 + random.nextInt(37), random);
+            int player = CheckersData.RED;
+            CheckersMove[] moves = board.getLegalMoves(player);
+            if (moves != null && random.nextBoolean()) {
+                board.makeMove(moves[random.nextInt(moves.length)]);
+                player = CheckersData.BLACK;
+            }
+            if (board.getLegalMoves(player) == null) {
+                continue;
+            }
+
+            search.newGame();
+            double shallow = search.searchValue(board, player, shallowDepth);
+            search.newGame();
+            double deep = search.searchValue(board, player, depth);
+            if (Math.abs(shallow) >= 1 || Math.abs(deep) >= 1) {
+                continue;
+            }
+            if (log != null) {
+                log.println(shallow + "," + deep);
+            }
+            sumX += shallow;
+            sumY += deep;
+            sumXX += shallow * shallow;
+            sumXY += shallow * deep;
+            sumYY += deep * deep;
+            n++;
+        }
+        if (log != null) {
+            log.close();
+        }
+
+        double a = (n * sumXY - sumX * sumY) / (n * sumXX - sumX * sumX);
+        double b = (sumY - a * sumX) / n;
+        // Residual sum of squares of the fit, from the sums
+        double residuals = sumYY - 2 * a * sumXY - 2 * b * sumY + a * a * sumXX + 2 * a * b * sumX + n * b * b;
+        double sigma = Math.sqrt(Math.max(0, residuals) / (n - 2));
+        System.out.printf("%d positions, depth %d from depth %d%n", n, depth, shallowDepth);
+        System.out.printf("PROBCUT_A = %.4f%nPROBCUT_B = %.4f%nPROBCUT_SIGMA = %.4f%n", a, b, sigma);
+    }
+}
@@ -0,0 +1,93 @@
+package edu.iastate.cs472.proj2;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Measures how long the parallel AlphaBetaSearch takes to complete a fixed
+ * depth with different thread counts, over the same set of positions.
+ *
+ * Usage: java edu.iastate.cs472.proj2.SpeedupReport [depth] [positions] [threads...]
+ *
+ * The defaults are depth 10, 20 positions and 1, 2, 4, 8 and 16 threads.
+ * Positions are reached by random play from the opening with a fixed
+ * seed, so every run searches the same positions.
+ */
+public class SpeedupReport {
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 10;
+        int count = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int[] threadCounts = {1, 2, 4, 8, 16};
+        if (args.length > 2) {
+            threadCounts = new int[args.length - 2];
+            for (int i = 2; i < args.length; i++) {
+                threadCounts[i - 2] = Integer.parseInt(args[i]);
+            }
+        }
+
+        ArrayList<CheckersData> positions = randomPositions(count, new Random(472));
+        System.out.println("Time to depth " + depth + " over " + positions.size() + " positions ("
+                + Runtime.getRuntime().availableProcessors() + " processors available)");
+        System.out.println("threads    total ms    speedup");
+
+        timeToDepth(positions, depth, 1); // Warm up the JIT before timing
+
+        double baseline = 0;
+        for (int threads : threadCounts) {
+            double millis = timeToDepth(positions, depth, threads) / 1e6;
+            if (baseline == 0) {
+                baseline = millis;
+            }
+            System.out.printf("%7d %11.0f %10.2f%n", threads, millis, baseline / millis);
+        }
+    }
+
+    /**
+     * Return the total time in nanoseconds to search every position to the
+     * given depth with the given number of threads.
+     */
+    static long timeToDepth(ArrayList<CheckersData> positions, int depth, int threads) {
+        long total = 0;
+        for (CheckersData position : positions) {
+            // A fresh search each time, so no table entries carry over
+            AlphaBetaSearch search = new AlphaBetaSearch();
+            search.setThreads(threads);
+            search.setDepthLimit(depth);
+            search.setMoveTime(0);
+            search.setPrintBoard(false);
+            search.setCheckersData(position);
+            CheckersMove[] legalMoves = position.getLegalMoves(CheckersData.BLACK);
+
+            long start = System.nanoTime();
+            search.makeMove(legalMoves);
+            total += System.nanoTime() - start;
+            search.setThreads(1);
+        }
+        return total;
+    }
+
+    /**
+     * Play random games from the opening and collect positions with BLACK
+     * to move and at least two legal moves, one every few plies.
+     */
+    static ArrayList<CheckersData> randomPositions(int count, Random random) {
+        ArrayList<CheckersData> positions = new ArrayList<CheckersData>();
+        while (positions.size() < count) {
+            CheckersData board = new CheckersData();
+            int player = CheckersData.RED;
+            for (int ply = 0; ply < 60 && positions.size() < count; ply++) {
+                CheckersMove[] moves = board.getLegalMoves(player);
+                if (moves == null) {
+                    break;
+                }
+                if (player == CheckersData.BLACK && ply >= 7 && ply % 8 == 7 && moves.length > 1) {
+                    positions.add(new CheckersData(board));
+                }
+                board.makeMove(moves[random.nextInt(moves.length)]);
+                player = player == CheckersData.RED ? CheckersData.BLACK : CheckersData.RED;
+            }
+        }
+        return positions;
+    }
+}
@@ -0,0 +1,114 @@
+package edu.iastate.cs472.proj2;
+
+import java.util.Random;
+
+/**
+ * 
+ * @author Hrishikesh Uchake
+ *
+ */
+
+/**
+ * This class is to be extended by the classes AlphaBetaSearch and MonteCarloTreeSearch.
+ */
+public abstract class AdversarialSearch {
+    protected CheckersData board;
+    protected boolean printBoard = true; // Print the board before each search
+    private OpeningBook openingBook = OpeningBook.getDefault(); // Moves played without searching
+    private Random bookRandom;           // Picks among book moves by weight, null for the best one
+
+    // An instance of this class will be created in the Checkers.Board
+    // It would be better to keep the default constructor.
+
+    protected void setCheckersData(CheckersData board) {
+        this.board = board;
+    }
+
+    /**
+     * Turn printing of the board at the start of each search on or off.
+     */
+    public void setPrintBoard(boolean printBoard) {
+        this.printBoard = printBoard;
+    }
+    
+    /**
+     * Set the wall-clock time makeMove() may spend on one move, or 0 for
+     * the search's own limit.  Searches without a time control ignore it.
+     *
+     * @param millis time budget per move in milliseconds, or 0
+     */
+    public void setMoveTime(long millis) {
+    }
+    
+    /**
+     * Forget what was learned in earlier games, so that the next search
+     * runs as on a new engine.  Searches that keep nothing between moves
+     * need not override it.
+     */
+    public void newGame() {
+    }
+    
+    /**
+     * Use the given opening book instead of the default one (see
+     * OpeningBook.getDefault()).
+     */
+    void setOpeningBook(OpeningBook openingBook) {
+        this.openingBook = openingBook;
+    }
+
+    /**
+     * Choose between the good moves of the opening book at random,
+     * weighted by their scores, instead of always playing the best one,
+     * so that games do not all start alike.
+     */
+    public void setBookVariety(boolean variety) {
+        bookRandom = variety ? new Random() : null;
+    }
+
+    /**
+     * Return the opening book's move for the current position, or null
+     * if the position is not in the book.
+     *
+     * @param legalMoves the legal moves for BLACK at the current position
+     */
+    protected CheckersMove bookMove(CheckersMove[] legalMoves) {
+        return openingBook.choose(board, legalMoves, bookRandom);
+    }
+
+    /** 
+     * 
+     * @return an array of valid moves
+     */
+    protected CheckersMove[] legalMoves() {
+    	// Get legal moves for BLACK (the AI player)
+    	return board.getLegalMoves(CheckersData.BLACK); 
+    }
+	
+    /**
+     * Search on the opponent's time: think about the position set with
+     * setCheckersData(), with RED to move, until the calling thread is
+     * interrupted, keeping what is found for the next makeMove().
+     * Searches that cannot ponder return at once.
+     */
+    public void ponder() {
+    }
+	
+    /**
+     * Return a short description of how far the search in progress has
+     * got, such as the depth reached, for display while it runs.  It may
+     * be called from any thread.
+     */
+    public String getProgress() {
+        return "";
+    }
+	
+    /**
+     * Return a move returned from either the alpha-beta search or the Monte Carlo tree search.
+     * If the calling thread is interrupted the search stops early and the best
+     * move found so far is returned, so a search run as a task can be cancelled.
+     * 
+     * @param legalMoves
+     * @return CheckersMove 
+     */
+    public abstract CheckersMove makeMove(CheckersMove[] legalMoves);
+}
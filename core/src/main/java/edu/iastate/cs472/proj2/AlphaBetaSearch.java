@@ -0,0 +1,952 @@
+package edu.iastate.cs472.proj2;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 
+ * @author Hrishikesh Uchake
+ *
+ */
+
+
+/**
+ * This class implements the Alpha-Beta pruning algorithm to find the best 
+ * move at current state.
+ *
+ * With more than one thread (see setThreads) the search runs as Lazy SMP:
+ * helper searches, each an AlphaBetaSearch with its own board and move
+ * ordering tables, deepen the same position on other threads and share
+ * this search's transposition table.  Only the results they leave in the
+ * table are used; the move is still chosen by the calling thread.
+*/
+public class AlphaBetaSearch extends AdversarialSearch {
+    
+    private static final int MAX_DEPTH = 64; // Deepest iteration ever searched
+    private static final int MAX_PLY = MAX_DEPTH + 32; // Deepest node, with the quiescence search
+    private static final double ASPIRATION_WINDOW = 0.05; // Half-width of the root window around the last score
+    private static final double NULL_WINDOW = 1e-5; // Width of a null window, above float rounding of stored scores
+
+    // Late move reductions: a quiet move ordered after the TT move,
+    // captures and killers, and at least LMR_MIN_MOVES-th, is first
+    // searched a ply shallower with a null window, and again at full
+    // depth only if it beats alpha.
+    private static final int LMR_MIN_MOVES = 3;
+    private static final int LMR_MIN_DEPTH = 3; // Plies left to search at the node
+
+    // ProbCut: at a node with PROBCUT_MIN_DEPTH or more plies left, a
+    // search PROBCUT_REDUCTION plies shallower predicts the deep value as
+    // PROBCUT_A * shallow + PROBCUT_B, with a standard error of
+    // PROBCUT_SIGMA.  When the shallow value is PROBCUT_T errors beyond a
+    // bound, the node is cut without the deep search.  Fitted by
+    // SearchCalibration (1000 positions, depth 10 from depth 6).
+    static final int PROBCUT_MIN_DEPTH = 6;
+    static final int PROBCUT_REDUCTION = 4;
+    private static final double PROBCUT_A = 1.0266;
+    private static final double PROBCUT_B = 0.0020;
+    private static final double PROBCUT_SIGMA = 0.0545;
+    private static final double PROBCUT_T = 1.5;
+    private static final long DEFAULT_MOVE_TIME = 1000; // Time budget per move (ms)
+
+    private long moveTime = DEFAULT_MOVE_TIME; // Time budget per move (ms)
+    private int depthLimit = MAX_DEPTH;         // Last iteration to search
+
+    // State of the current iteration
+    private int searchDepth;   // Depth of the current iteration
+    private long deadline;     // System.nanoTime() at which to stop, 0 for none
+    private long nodes;        // Nodes visited in this move's search
+    private boolean stopped;   // Set when the deadline passes mid-iteration
+    private volatile boolean stopRequested; // Set by the main search to stop a helper
+    private double lastValue;  // Value of the best root move in the last iteration
+    private double[] rootScores = new double[0]; // Value of each legal move in the last iteration
+    private boolean scoreAllMoves; // Search every root move with a full window, for exact rootScores
+    private boolean probCut = true; // Off while calibrating ProbCut
+    private volatile int depthReached; // Depth of the last completed iteration, for getProgress()
+
+    // Move buffers for each ply of the search, allocated once so that the
+    // search itself does not allocate.  moveBuffers[depth] holds the moves
+    // of the node at that depth.
+    private final long[][] moveBuffers = new long[MAX_PLY][CheckersData.MAX_MOVES];
+    private final int[][] orderBuffers = new int[MAX_DEPTH][CheckersData.MAX_MOVES];
+
+    // Move ordering.  Sort keys are built from these scores (see orderMoves).
+    private static final int TT_MOVE_SCORE = 1 << 22;
+    private static final int CAPTURE_SCORE = 1 << 16; // per captured piece
+    private static final int KILLER_SCORE = 1 << 15;
+    private static final int HISTORY_LIMIT = 1 << 14; // history scores stay below KILLER_SCORE
+
+    private final long[][] killers = new long[MAX_DEPTH][2]; // two quiet cutoff moves per ply
+    private final int[][] history = new int[2][32 * 32];      // [BLACK, RED][from * 32 + to]
+
+    private static final int DEFAULT_TABLE_MB = 64; // Transposition table size
+
+    private final TranspositionTable table; // Results kept between searches
+    private Tablebase tablebase = Tablebase.getDefault(); // Exact results of small endgames
+
+    private AlphaBetaSearch[] helpers = new AlphaBetaSearch[0]; // Lazy SMP helper searches
+    private ExecutorService pool;                               // Runs the helpers
+
+    /**
+     * Create a search with a transposition table of the default size.
+     */
+    public AlphaBetaSearch() {
+        this(DEFAULT_TABLE_MB);
+    }
+
+    /**
+     * Create a search with a transposition table of the given size.
+     *
+     * @param tableMegabytes size of the transposition table in megabytes
+     */
+    public AlphaBetaSearch(int tableMegabytes) {
+        this(new TranspositionTable(tableMegabytes));
+    }
+
+    /**
+     * Create a search that uses the given transposition table.
+     */
+    private AlphaBetaSearch(TranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Set the number of threads makeMove() searches with.  With one
+     * thread (the default) the search runs on the calling thread only.
+     *
+     * @param threads number of search threads, at least 1
+     */
+    public void setThreads(int threads) {
+        threads = Math.max(1, threads);
+        if (threads == helpers.length + 1) {
+            return;
+        }
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+        helpers = new AlphaBetaSearch[threads - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            helpers[i] = new AlphaBetaSearch(table);
+            helpers[i].tablebase = tablebase;
+        }
+        if (helpers.length > 0) {
+            pool = Executors.newFixedThreadPool(helpers.length, r -> {
+                Thread thread = new Thread(r, "alpha-beta helper");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Use the given endgame tables instead of the default ones (see
+     * Tablebase.getDefault()).
+     */
+    void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+        for (AlphaBetaSearch helper : helpers) {
+            helper.tablebase = tablebase;
+        }
+    }
+
+    /**
+     * Set the wall-clock time makeMove() may spend on one move.  With 0
+     * there is no time limit and only the depth limit ends the search.
+     *
+     * @param millis time budget per move in milliseconds, or 0
+     */
+    public void setMoveTime(long millis) {
+        moveTime = millis;
+    }
+
+    /**
+     * Stop deepening after the given depth even if time is left.
+     *
+     * @param depth deepest iteration to search, at least 1
+     */
+    public void setDepthLimit(int depth) {
+        depthLimit = Math.max(1, Math.min(depth, MAX_DEPTH));
+    }
+
+    /**
+     * Forget what earlier searches learned: the transposition table and
+     * the history scores.  The next search then runs as on a new
+     * AlphaBetaSearch.
+     */
+    public void newGame() {
+        table.clear();
+        for (AlphaBetaSearch search : helpers) {
+            search.clearHistory();
+        }
+        clearHistory();
+    }
+
+    private void clearHistory() {
+        for (int[] hist : history) {
+            java.util.Arrays.fill(hist, 0);
+        }
+    }
+
+    /**
+     * The input parameter legalMoves contains all the possible moves.
+     * It contains four integers:  fromRow, fromCol, toRow, toCol
+     * which represents a move from (fromRow, fromCol) to (toRow, toCol).
+     * It also provides a utility method `isJump` to see whether this
+     * move is a jump or a simple move.
+     * 
+     * Each legalMove in the input now contains a single move
+     * or a sequence of jumps: (rows[0], cols[0]) -> (rows[1], cols[1]) ->
+     * (rows[2], cols[2]).
+     *
+     * @param legalMoves All the legal moves for the agent at current step.
+     */
+    public CheckersMove makeMove(CheckersMove[] legalMoves) {
+        // The checker board state can be obtained from this.board,
+        // which is a int 2D array. The numbers in the `board` are
+        // defined as
+        // 0 - empty square,
+        // 1 - red man
+        // 2 - red king
+        // 3 - black man
+        // 4 - black king
+        if (printBoard) {
+            System.out.println(board);
+            System.out.println();
+        }
+
+        if (legalMoves.length == 1) {
+            rootScores = new double[0];
+            return legalMoves[0]; // Nothing to decide
+        }
+        CheckersMove bookMove = bookMove(legalMoves);
+        if (bookMove != null) {
+            rootScores = new double[0];
+            return bookMove; // Searched when the book was built
+        }
+
+        long stopAt = moveTime > 0 ? System.nanoTime() + moveTime * 1000000L : 0;
+        depthReached = 0;
+        table.newSearch();
+
+        // Start the helpers, half of them one ply ahead of the main search
+        Future<?>[] running = new Future<?>[helpers.length];
+        for (int i = 0; i < helpers.length; i++) {
+            AlphaBetaSearch helper = helpers[i];
+            CheckersData state = copyBoard(board);
+            int firstDepth = 1 + (i + 1) % 2;
+            helper.depthLimit = depthLimit;
+            helper.stopRequested = false;
+            running[i] = pool.submit(() -> helper.think(state, legalMoves, firstDepth, 0));
+        }
+
+        CheckersMove bestMove = think(copyBoard(board), legalMoves, 1, stopAt);
+
+        for (AlphaBetaSearch helper : helpers) {
+            helper.stopRequested = true;
+        }
+        // Wait for the helpers even if interrupted, so none is still running
+        // when the next search starts
+        boolean interrupted = false;
+        for (Future<?> helper : running) {
+            while (true) {
+                try {
+                    helper.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("helper search failed", e.getCause());
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return bestMove;
+    }
+
+    /**
+     * Return the depth of the last iteration completed by the search in
+     * progress.
+     */
+    public String getProgress() {
+        return "depth " + depthReached;
+    }
+
+    /**
+     * Deepen iteratively from firstDepth and return the best move of the
+     * last completed iteration.  The first iteration always completes;
+     * after that the search stops when System.nanoTime() reaches stopAt
+     * (unless it is 0) or when stopRequested is set.
+     *
+     * @param state      a board for this search alone to make moves on
+     * @param legalMoves the legal moves at state
+     * @param firstDepth depth of the first iteration
+     * @param stopAt     deadline in System.nanoTime() units, or 0 for none
+     */
+    private CheckersMove think(CheckersData state, CheckersMove[] legalMoves, int firstDepth, long stopAt) {
+        prepareSearch();
+
+        // Root moves in the order to search them; the best move of each
+        // iteration is moved to the front for the next one.
+        CheckersMove[] rootMoves = legalMoves.clone();
+        CheckersMove bestMove = rootMoves[0];
+        double[] values = new double[rootMoves.length];
+
+        // Deepen one ply at a time until the time budget runs out
+        for (searchDepth = firstDepth; searchDepth <= depthLimit; searchDepth++) {
+            // Aspiration: expect a score near the last iteration's, and
+            // search again with that side of the window open if it is not
+            double alpha = Double.NEGATIVE_INFINITY, beta = Double.POSITIVE_INFINITY;
+            if (searchDepth > firstDepth && !scoreAllMoves) {
+                alpha = lastValue - ASPIRATION_WINDOW;
+                beta = lastValue + ASPIRATION_WINDOW;
+            }
+            int best;
+            while (true) {
+                best = searchRoot(state, rootMoves, values, alpha, beta);
+                if (stopped || (lastValue > alpha && lastValue < beta)) {
+                    break;
+                }
+                if (lastValue <= alpha) {
+                    alpha = Double.NEGATIVE_INFINITY;
+                } else {
+                    beta = Double.POSITIVE_INFINITY;
+                }
+            }
+            if (stopped) {
+                break; // Incomplete iteration, keep the previous best move
+            }
+            recordRootScores(legalMoves, rootMoves, values);
+            bestMove = rootMoves[best];
+            System.arraycopy(rootMoves, 0, rootMoves, 1, best);
+            rootMoves[0] = bestMove;
+            depthReached = searchDepth;
+
+            if (Math.abs(lastValue) >= 1) {
+                break; // Forced win or loss found, deeper search cannot change it
+            }
+            deadline = stopAt;
+            if (stopAt != 0 && System.nanoTime() >= stopAt) {
+                break;
+            }
+        }
+
+        return bestMove;
+    }
+
+    /**
+     * Reset the per-search state: node count, stop flag, deadline and
+     * killer moves.
+     */
+    private void prepareSearch() {
+        nodes = 0;
+        stopped = false;
+        for (long[] killer : killers) {
+            killer[0] = killer[1] = 0;
+        }
+        ageHistory(); // History carries over, at half weight
+        deadline = 0;
+    }
+
+    /**
+     * Deepen iteratively on the position set with setCheckersData(), RED
+     * to move, until the calling thread is interrupted, the depth limit is
+     * reached or the result is decided.  Nothing is returned: the results
+     * left in the transposition table for the positions after each of
+     * RED's replies are what the next makeMove() uses.  Pondering runs on
+     * the calling thread only, without the helpers.
+     */
+    public void ponder() {
+        CheckersData state = copyBoard(board);
+        depthReached = 0;
+        table.newSearch();
+        prepareSearch();
+        for (searchDepth = 1; searchDepth <= depthLimit; searchDepth++) {
+            double value = minValue(state, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 0);
+            if (stopped || Math.abs(value) >= 1) {
+                break;
+            }
+            depthReached = searchDepth;
+        }
+    }
+
+    /**
+     * Search every root move with a full window instead of the null
+     * windows of principal variation search, so that getRootScores()
+     * gives each move's exact value.  The search is slower.
+     */
+    void setScoreAllMoves(boolean scoreAllMoves) {
+        this.scoreAllMoves = scoreAllMoves;
+    }
+
+    /**
+     * Return the value of each of the legal moves last passed to
+     * makeMove(), in the same order, from the last completed iteration.
+     * Only the best is exact unless setScoreAllMoves(true) was called;
+     * the others may be bounds from null-window searches.  Empty if
+     * makeMove() had only one move to choose from.
+     */
+    double[] getRootScores() {
+        return rootScores.clone();
+    }
+
+    /**
+     * Store the values of the root moves, in the order searched, as
+     * rootScores in the order of legalMoves.
+     */
+    private void recordRootScores(CheckersMove[] legalMoves, CheckersMove[] rootMoves, double[] values) {
+        double[] scores = new double[legalMoves.length];
+        for (int i = 0; i < rootMoves.length; i++) {
+            for (int j = 0; j < legalMoves.length; j++) {
+                if (legalMoves[j] == rootMoves[i]) {
+                    scores[j] = values[i];
+                }
+            }
+        }
+        rootScores = scores;
+    }
+
+    /**
+     * Search every root move to the current iteration depth within the
+     * window (alpha, beta), store the value of each in values and return
+     * the index of the best one.  The best value is left in lastValue; at
+     * or outside the window it is only a bound.  The result is
+     * meaningless if the search was stopped.
+     *
+     * This is principal variation search: the first move, the best of
+     * the last iteration, gets the whole window, and each later move a
+     * null window just above the best value so far, which only proves it
+     * no better.  A move that fails high is searched again with the full
+     * window.
+     */
+    private int searchRoot(CheckersData state, CheckersMove[] rootMoves, double[] values,
+                           double alpha, double beta) {
+        int best = 0;
+        double bestValue = Double.NEGATIVE_INFINITY;
+
+        // Try each legal move and find the best one using alpha-beta pruning
+        for (int i = 0; i < rootMoves.length; i++) {
+            long packed = state.packMove(rootMoves[i]);
+            int undo = state.makeMove(packed);
+            
+            double value;
+            if (scoreAllMoves) {
+                value = minValue(state, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 1);
+            } else if (i == 0) {
+                value = minValue(state, alpha, beta, 1);
+            } else {
+                value = minValue(state, alpha, alpha + NULL_WINDOW, 1);
+                if (value > alpha && value < beta && !stopped) {
+                    value = minValue(state, alpha, beta, 1); // Better after all: find by how much
+                }
+            }
+            state.unmakeMove(packed, undo);
+            if (stopped) {
+                break;
+            }
+            values[i] = value;
+            
+            if (value > bestValue) {
+                bestValue = value;
+                best = i;
+            }
+            if (value >= beta) {
+                break; // Above the aspiration window: search again with it open
+            }
+            alpha = Math.max(alpha, value);
+        }
+
+        lastValue = bestValue;
+        return best;
+    }
+
+    /**
+     * Count a node and check the clock every 1024 nodes.  Returns true
+     * once the deadline has passed, a stop was requested or the thread
+     * was interrupted.
+     */
+    private boolean outOfTime() {
+        if ((++nodes & 1023) == 0 && (stopRequested || Thread.currentThread().isInterrupted()
+                || (deadline != 0 && System.nanoTime() >= deadline))) {
+            stopped = true;
+        }
+        return stopped;
+    }
+    
+    /**
+     * Max player (BLACK - AI) tries to maximize the score.  depth is the
+     * node's distance in plies from the root plus the plies taken off by
+     * reductions on the way, so the node is at the horizon once it
+     * reaches searchDepth.
+     */
+    private double maxValue(CheckersData state, double alpha, double beta, int depth) {
+        if (outOfTime()) {
+            return 0; // Discarded by the caller
+        }
+        if (Integer.bitCount(state.red | state.black) <= tablebase.maxPieces()) {
+            int result = tablebase.probe(state, CheckersData.BLACK);
+            if (result != Tablebase.UNKNOWN) {
+                return tablebaseScore(result, depth, CheckersData.BLACK);
+            }
+        }
+        if (depth >= searchDepth) {
+            return quiesce(state, alpha, beta, depth, CheckersData.BLACK);
+        }
+        
+        // Use a stored result if it was searched at least as deep, before
+        // paying for move generation
+        long entry = table.probe(state.zobrist);
+        if (entry != 0 && usable(entry, alpha, beta, depth)) {
+            return tableScore(entry, depth);
+        }
+        
+        // Each side's moves are found once: this side's to search, the
+        // other side's only counted, for the end of the game.  A finished
+        // game is never stored, so the table cannot have answered for it.
+        long[] moves = moveBuffers[depth];
+        int count = state.generateMoves(CheckersData.BLACK, moves);
+        int replies = state.countMoves(CheckersData.RED);
+        if (count == 0 || replies == 0) {
+            return evaluate(state, count, replies); // Game over
+        }
+        
+        // ProbCut: give up on a node that a shallower search says will
+        // very likely fail high
+        int remaining = searchDepth - depth;
+        if (probCut && remaining >= PROBCUT_MIN_DEPTH && Math.abs(beta) < 1) {
+            double bound = (beta + PROBCUT_T * PROBCUT_SIGMA - PROBCUT_B) / PROBCUT_A;
+            double shallow = maxValue(state, bound - NULL_WINDOW, bound, depth + PROBCUT_REDUCTION);
+            if (stopped) {
+                return 0;
+            }
+            if (shallow >= bound) {
+                return beta;
+            }
+        }
+        
+        int[] order = orderBuffers[depth];
+        orderMoves(moves, count, order, entry, depth, CheckersData.BLACK);
+        
+        double alphaOrig = alpha, betaOrig = beta;
+        double value = Double.NEGATIVE_INFINITY;
+        int best = 0;
+        for (int n = 0; n < count; n++) {
+            int i = nextMove(order, n, count);
+            int undo = state.makeMove(moves[i]);
+            double child;
+            if (n == 0) {
+                child = minValue(state, alpha, beta, depth + 1);
+            } else {
+                // Principal variation search: prove the move no better than
+                // the first with a null window, a ply shallower if it is a
+                // late quiet move, and search it fully if not
+                int reduction = lateQuietMove(moves[i], order[n], n, remaining) ? 1 : 0;
+                child = minValue(state, alpha, alpha + NULL_WINDOW, depth + 1 + reduction);
+                if (reduction > 0 && child > alpha && !stopped) {
+                    child = minValue(state, alpha, alpha + NULL_WINDOW, depth + 1);
+                }
+                if (child > alpha && child < beta && beta - alpha > NULL_WINDOW && !stopped) {
+                    child = minValue(state, alpha, beta, depth + 1);
+                }
+            }
+            state.unmakeMove(moves[i], undo);
+            if (stopped) {
+                return 0;
+            }
+            if (child > value) {
+                value = child;
+                best = i;
+            }
+            
+            if (value >= beta) {
+                recordCutoff(moves[i], depth, CheckersData.BLACK); // Beta cutoff
+                break;
+            }
+            alpha = Math.max(alpha, value);
+        }
+        
+        store(state, depth, value, alphaOrig, betaOrig, best);
+        return value;
+    }
+    
+    /**
+     * Min player (RED - human) tries to minimize the score.
+     */
+    private double minValue(CheckersData state, double alpha, double beta, int depth) {
+        if (outOfTime()) {
+            return 0; // Discarded by the caller
+        }
+        if (Integer.bitCount(state.red | state.black) <= tablebase.maxPieces()) {
+            int result = tablebase.probe(state, CheckersData.RED);
+            if (result != Tablebase.UNKNOWN) {
+                return tablebaseScore(result, depth, CheckersData.RED);
+            }
+        }
+        if (depth >= searchDepth) {
+            return quiesce(state, alpha, beta, depth, CheckersData.RED);
+        }
+        
+        // Use a stored result if it was searched at least as deep, before
+        // paying for move generation
+        long entry = table.probe(state.zobrist);
+        if (entry != 0 && usable(entry, alpha, beta, depth)) {
+            return tableScore(entry, depth);
+        }
+        
+        // Each side's moves are found once: this side's to search, the
+        // other side's only counted, for the end of the game.  A finished
+        // game is never stored, so the table cannot have answered for it.
+        long[] moves = moveBuffers[depth];
+        int count = state.generateMoves(CheckersData.RED, moves);
+        int replies = state.countMoves(CheckersData.BLACK);
+        if (count == 0 || replies == 0) {
+            return evaluate(state, replies, count); // Game over
+        }
+        
+        // ProbCut: give up on a node that a shallower search says will
+        // very likely fail low
+        int remaining = searchDepth - depth;
+        if (probCut && remaining >= PROBCUT_MIN_DEPTH && Math.abs(alpha) < 1) {
+            double bound = (alpha - PROBCUT_T * PROBCUT_SIGMA - PROBCUT_B) / PROBCUT_A;
+            double shallow = minValue(state, bound, bound + NULL_WINDOW, depth + PROBCUT_REDUCTION);
+            if (stopped) {
+                return 0;
+            }
+            if (shallow <= bound) {
+                return alpha;
+            }
+        }
+        
+        int[] order = orderBuffers[depth];
+        orderMoves(moves, count, order, entry, depth, CheckersData.RED);
+        
+        double alphaOrig = alpha, betaOrig = beta;
+        double value = Double.POSITIVE_INFINITY;
+        int best = 0;
+        for (int n = 0; n < count; n++) {
+            int i = nextMove(order, n, count);
+            int undo = state.makeMove(moves[i]);
+            double child;
+            if (n == 0) {
+                child = maxValue(state, alpha, beta, depth + 1);
+            } else {
+                // Principal variation search and late move reductions, from
+                // the minimizing side
+                int reduction = lateQuietMove(moves[i], order[n], n, remaining) ? 1 : 0;
+                child = maxValue(state, beta - NULL_WINDOW, beta, depth + 1 + reduction);
+                if (reduction > 0 && child < beta && !stopped) {
+                    child = maxValue(state, beta - NULL_WINDOW, beta, depth + 1);
+                }
+                if (child < beta && child > alpha && beta - alpha > NULL_WINDOW && !stopped) {
+                    child = maxValue(state, alpha, beta, depth + 1);
+                }
+            }
+            state.unmakeMove(moves[i], undo);
+            if (stopped) {
+                return 0;
+            }
+            if (child < value) {
+                value = child;
+                best = i;
+            }
+            
+            if (value <= alpha) {
+                recordCutoff(moves[i], depth, CheckersData.RED); // Alpha cutoff
+                break;
+            }
+            beta = Math.min(beta, value);
+        }
+        
+        store(state, depth, value, alphaOrig, betaOrig, best);
+        return value;
+    }
+    
+    /**
+     * Return true if the move, searched n-th with the given sort key (see
+     * orderMoves), is late and quiet enough to be searched with a
+     * reduction at a node with the given number of plies left: not the
+     * table move, a capture, a crowning or a killer.
+     */
+    private static boolean lateQuietMove(long move, int key, int n, int remaining) {
+        return n >= LMR_MIN_MOVES && remaining >= LMR_MIN_DEPTH && (key >> 8) < KILLER_SCORE
+                && !CheckersData.moveCrowns(move);
+    }
+
+    /**
+     * Return the value of the position, searched to the given depth with
+     * a full window and without ProbCut, for SearchCalibration to fit the
+     * ProbCut parameters.
+     *
+     * @param player the player to move, RED or BLACK
+     */
+    double searchValue(CheckersData position, int player, int depth) {
+        CheckersData state = copyBoard(position);
+        table.newSearch();
+        prepareSearch();
+        searchDepth = depth;
+        probCut = false;
+        try {
+            return player == CheckersData.BLACK
+                    ? maxValue(state, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 0)
+                    : minValue(state, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, 0);
+        } finally {
+            probCut = true;
+        }
+    }
+
+    /**
+     * Quiescence search beyond the horizon.  While the player to move has
+     * a capture, which is forced, every capture is searched before the
+     * position is evaluated, so that no exchange is cut off half way.  A
+     * position without captures is quiet and stands pat: evaluate() is
+     * taken as its value and the opponent's threats are not searched.
+     */
+    private double quiesce(CheckersData state, double alpha, double beta, int depth, int player) {
+        if (outOfTime()) {
+            return 0; // Discarded by the caller
+        }
+        long[] moves = moveBuffers[depth];
+        int count = state.generateMoves(player, moves);
+        boolean maximizing = player == CheckersData.BLACK;
+        int opponent = maximizing ? CheckersData.RED : CheckersData.BLACK;
+        if (count == 0 || CheckersData.moveCaptures(moves[0]) == 0 || depth == MAX_PLY - 1) {
+            int replies = state.countMoves(opponent);
+            return maximizing ? evaluate(state, count, replies) : evaluate(state, replies, count); // Stand pat
+        }
+        
+        double value = maximizing ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            int undo = state.makeMove(moves[i]);
+            double child = quiesce(state, alpha, beta, depth + 1, opponent);
+            state.unmakeMove(moves[i], undo);
+            if (stopped) {
+                return 0;
+            }
+            if (maximizing) {
+                value = Math.max(value, child);
+                if (value >= beta) {
+                    break;
+                }
+                alpha = Math.max(alpha, value);
+            } else {
+                value = Math.min(value, child);
+                if (value <= alpha) {
+                    break;
+                }
+                beta = Math.min(beta, value);
+            }
+        }
+        return value;
+    }
+    
+    /**
+     * Check whether a transposition table entry was searched deep enough
+     * and its bound settles the value for the window (alpha, beta).
+     */
+    private boolean usable(long entry, double alpha, double beta, int depth) {
+        if (TranspositionTable.depth(entry) < searchDepth - depth) {
+            return false;
+        }
+        double score = tableScore(entry, depth);
+        switch (TranspositionTable.bound(entry)) {
+            case TranspositionTable.EXACT: return true;
+            case TranspositionTable.LOWER: return score >= beta;
+            default: return score <= alpha;
+        }
+    }
+    
+    /**
+     * Fill order with a sort key for each move: the transposition table
+     * move first, then captures by the number of pieces taken, then the
+     * two killer moves of this ply, then quiet moves by their history
+     * score.  The low 8 bits of a key hold 255 minus the move's index, so
+     * the moves themselves stay in generation order and ties keep it.
+     */
+    private void orderMoves(long[] moves, int count, int[] order, long entry, int depth, int player) {
+        int ttMove = entry == 0 ? TranspositionTable.NO_MOVE : TranspositionTable.move(entry);
+        long[] killer = killers[depth];
+        int[] hist = history[player == CheckersData.BLACK ? 0 : 1];
+        for (int i = 0; i < count; i++) {
+            long move = moves[i];
+            int captures = Integer.bitCount(CheckersData.moveCaptures(move));
+            int score;
+            if (i == ttMove) {
+                score = TT_MOVE_SCORE;
+            } else if (captures > 0) {
+                score = captures * CAPTURE_SCORE;
+            } else if (move == killer[0]) {
+                score = KILLER_SCORE + 1;
+            } else if (move == killer[1]) {
+                score = KILLER_SCORE;
+            } else {
+                score = hist[historyIndex(move)];
+            }
+            order[i] = (score << 8) | (255 - i);
+        }
+    }
+
+    /**
+     * Select the move to search n-th: swap the largest key among
+     * order[n..count-1] into position n and return the index of its move.
+     */
+    private static int nextMove(int[] order, int n, int count) {
+        int best = n;
+        for (int j = n + 1; j < count; j++) {
+            if (order[j] > order[best]) {
+                best = j;
+            }
+        }
+        int key = order[best];
+        order[best] = order[n];
+        order[n] = key;
+        return 255 - (key & 0xFF);
+    }
+
+    /**
+     * Remember a quiet move that caused a cutoff as a killer for this ply
+     * and credit it in the history table, weighted by remaining depth.
+     */
+    private void recordCutoff(long move, int depth, int player) {
+        if (CheckersData.moveCaptures(move) != 0) {
+            return;
+        }
+        long[] killer = killers[depth];
+        if (killer[0] != move) {
+            killer[1] = killer[0];
+            killer[0] = move;
+        }
+        int[] hist = history[player == CheckersData.BLACK ? 0 : 1];
+        int remaining = searchDepth - depth;
+        int index = historyIndex(move);
+        hist[index] += remaining * remaining;
+        if (hist[index] >= HISTORY_LIMIT) {
+            ageHistory();
+        }
+    }
+
+    /**
+     * Halve all history scores, keeping their order but letting newer
+     * cutoffs weigh more.
+     */
+    private void ageHistory() {
+        for (int[] hist : history) {
+            for (int i = 0; i < hist.length; i++) {
+                hist[i] >>= 1;
+            }
+        }
+    }
+
+    private static int historyIndex(long move) {
+        return CheckersData.moveFrom(move) * 32 + CheckersData.moveTo(move);
+    }
+    
+    /**
+     * Store the result of a node in the transposition table.  The bound
+     * type follows from comparing the value with the original window.  A
+     * tablebase win or loss counts its plies from the root, so it is
+     * stored counting them from the node instead, and tableScore() counts
+     * them from the root again for whichever depth the entry is found at.
+     */
+    private void store(CheckersData state, int depth, double value, double alpha, double beta, int best) {
+        int bound = value <= alpha ? TranspositionTable.UPPER
+                : value >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        double score = isTablebaseScore(value) ? value + Math.signum(value) * depth / 256.0 : value;
+        table.store(state.zobrist, searchDepth - depth, bound, score, best);
+    }
+    
+    /**
+     * Return the score of a table entry for a node at the given depth,
+     * undoing the adjustment of tablebase results made by store().
+     */
+    private static double tableScore(long entry, int depth) {
+        double score = TranspositionTable.score(entry);
+        return isTablebaseScore(score) ? score - Math.signum(score) * depth / 256.0 : score;
+    }
+    
+    /**
+     * Return true if the score is a tablebase win or loss, which depends on
+     * the distance from the root (see tablebaseScore()).  Games that end
+     * in the tree score exactly 2 or -2 at any depth.
+     */
+    private static boolean isTablebaseScore(double score) {
+        return Math.abs(score) > 1 && Math.abs(score) < 2;
+    }
+    
+    /**
+     * Convert a tablebase result for the player to move into a score for
+     * BLACK.  Wins and losses score beyond the [-1, 1] of evaluate(),
+     * the quicker the result (counted from the root) the further.
+     */
+    private static double tablebaseScore(int result, int depth, int player) {
+        double score = result == 0 ? 0
+                : result > 0 ? 2 - (depth + result) / 256.0
+                : -(2 - (depth - result - 1) / 256.0);
+        return player == CheckersData.BLACK ? score : -score;
+    }
+
+    /**
+     * Evaluation function that returns a heuristic score for non-terminal states.
+     * Positive values favor BLACK (AI), negative values favor RED (human).
+     * 
+     * Features:
+     * 1. Material advantage: piece count difference
+     * 2. King advantage: kings are more valuable
+     * 3. Positional advantage: pieces closer to becoming kings
+     * 4. Mobility: number of legal moves available
+     */
+    double evaluate(CheckersData state) {
+        return evaluate(state, state.countMoves(CheckersData.BLACK), state.countMoves(CheckersData.RED));
+    }
+    
+    /**
+     * Evaluate the state given the number of legal moves of each side,
+     * which the search has at hand.
+     */
+    private double evaluate(CheckersData state, int blackMoves, int redMoves) {
+        // Terminal state utilities
+        if (blackMoves == 0 && redMoves == 0) {
+            return 0; // Draw
+        }
+        if (blackMoves == 0) {
+            return -2; // BLACK (AI) loses
+        }
+        if (redMoves == 0) {
+            return 2; // BLACK (AI) wins
+        }
+        
+        double score = 0;
+        
+        // Piece counts come from the bitboards, and the positional sums are
+        // kept by CheckersData as the moves are made
+        int blackMen = Integer.bitCount(state.black & ~state.kings);
+        int blackKings = Integer.bitCount(state.black & state.kings);
+        int redMen = Integer.bitCount(state.red & ~state.kings);
+        int redKings = Integer.bitCount(state.red & state.kings);
+        
+        // Material score (pieces and kings)
+        score += (blackMen - redMen) * 0.3;
+        score += (blackKings - redKings) * 0.5;
+        
+        // Positional score: men advancing, kings in the center
+        score += state.position * CheckersData.POSITION_UNIT;
+        
+        // Mobility score (more moves = better)
+        score += (blackMoves - redMoves) * 0.02;
+        
+        // Normalize score to [-1, 1] range for non-terminal states; decided
+        // games score 2 (or a little less, see tablebaseScore()) for the winner
+        return Math.tanh(score);
+    }
+    
+    /**
+     * Create a copy of the board for the search to work on, so that the
+     * game board is never touched by makeMove/unmakeMove.
+     */
+    private CheckersData copyBoard(CheckersData original) {
+        return new CheckersData(original);
+    }
+
+}
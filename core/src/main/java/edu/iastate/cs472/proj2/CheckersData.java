@@ -0,0 +1,807 @@
+package edu.iastate.cs472.proj2;
+
+import java.util.ArrayList;
+
+/**
+ * An object of this class holds data about a game of checkers.
+ * It knows what kind of piece is on each square of the checkerboard.
+ * Note that RED moves "up" the board (i.e. row number decreases)
+ * while BLACK moves "down" the board (i.e. row number increases).
+ * Methods are provided to return lists of available legal moves.
+ */
+public class CheckersData {
+
+  /*  The following constants represent the possible contents of a square
+      on the board.  The constants RED and BLACK also represent players
+      in the game. */
+
+    static final int
+            EMPTY = 0,
+            RED = 1,
+            RED_KING = 2,
+            BLACK = 3,
+            BLACK_KING = 4;
+
+
+    /*  The position is kept as three bitboards over the 32 playable
+        squares.  Square (row, col) with row % 2 != col % 2 has index
+        row * 4 + col / 2, so bit 0 is (0, 1) and bit 31 is (7, 6).  A
+        square holds a king if its bit is set in both kings and one of
+        red or black. */
+
+    int red;    // squares occupied by RED pieces (men and kings)
+    int black;  // squares occupied by BLACK pieces (men and kings)
+    int kings;  // squares occupied by kings of either color
+
+    /*  Zobrist key of the position, kept up to date by every method that
+        changes the board.  It is the XOR of a random key for each piece on
+        its square, plus SIDE_KEY when BLACK is to move.  Every complete
+        move (not a single step of a jump) toggles the side to move. */
+    long zobrist;
+
+    private static final long[] PIECE_KEYS = new long[4 * 32];  // [type * 32 + square]
+    private static final long SIDE_KEY;
+    static {
+        java.util.Random random = new java.util.Random(0x436865636B657273L);
+        for (int i = 0; i < PIECE_KEYS.length; i++) {
+            PIECE_KEYS[i] = random.nextLong();
+        }
+        SIDE_KEY = random.nextLong();
+    }
+
+    /*  Positional part of the evaluation, BLACK's pieces minus RED's, in
+        units of POSITION_UNIT, kept up to date like the Zobrist key.  A man
+        scores 7 per row advanced; a king scores 2 for each of its row and
+        column by how near it is to the center: 7 - |7 - 2 * row|.  The
+        material counts need no such care: they are popcounts of the
+        bitboards. */
+    int position;
+
+    static final double POSITION_UNIT = 0.01 / 7;
+    private static final int[] PIECE_SCORES = new int[4 * 32];  // [type * 32 + square], as PIECE_KEYS
+    static {
+        for (int sq = 0; sq < 32; sq++) {
+            int row = sq >> 2, col = column(sq);
+            int king = 2 * ((7 - Math.abs(7 - 2 * row)) + (7 - Math.abs(7 - 2 * col)));
+            PIECE_SCORES[sq] = -7 * (7 - row);      // red man
+            PIECE_SCORES[32 + sq] = -king;          // red king
+            PIECE_SCORES[64 + sq] = 7 * row;        // black man
+            PIECE_SCORES[96 + sq] = king;           // black king
+        }
+    }
+
+    // Masks used by the shift-and-mask step functions below.
+    private static final int EVEN_ROWS = 0x0F0F0F0F;  // rows 0, 2, 4, 6
+    private static final int ODD_ROWS = 0xF0F0F0F0;   // rows 1, 3, 5, 7
+    private static final int LEFT_EDGE = 0x10101010;  // column 0
+    private static final int RIGHT_EDGE = 0x08080808; // column 7
+
+    // Diagonal directions, in the order moves are generated.
+    private static final int UP_LEFT = 0, UP_RIGHT = 1, DOWN_LEFT = 2, DOWN_RIGHT = 3;
+
+    /*  Searches work on moves packed into a long instead of CheckersMove
+        objects: the captured squares in bits 0-31, the from square in bits
+        32-36, the to square in bits 37-41 and bit 42 set if a man is
+        crowned.  The path of a multi-jump is not kept; the position after
+        the move only depends on these fields. */
+
+    static final int MAX_MOVES = 256;  // size of a move buffer for one position
+
+    private static final int FROM_SHIFT = 32, TO_SHIFT = 37;
+    private static final long CROWNS = 1L << 42;
+
+
+    /**
+     * Constructor.  Create the board and set it up for a new game.
+     */
+    CheckersData() {
+        setUpGame();
+    }
+
+    /**
+     * Copy constructor.  Create a board holding the same position as other.
+     */
+    CheckersData(CheckersData other) {
+        red = other.red;
+        black = other.black;
+        kings = other.kings;
+        zobrist = other.zobrist;
+        position = other.position;
+    }
+
+    /**
+     * Set this board to the same position as other.
+     */
+    void copyFrom(CheckersData other) {
+        red = other.red;
+        black = other.black;
+        kings = other.kings;
+        zobrist = other.zobrist;
+        position = other.position;
+    }
+
+    public static final String ANSI_RESET = "\u001B[0m";
+    public static final String ANSI_RED = "\u001B[31m";
+    public static final String ANSI_YELLOW = "\u001B[33m";
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+
+        for (int i = 0; i < 8; i++) {
+            sb.append(8 - i).append(" ");
+            for (int j = 0; j < 8; j++) {
+                int n = pieceAt(i, j);
+                if (n == 0) {
+                    sb.append(" ");
+                } else if (n == 1) {
+                    sb.append(ANSI_RED + "R" + ANSI_RESET);
+                } else if (n == 2) {
+                    sb.append(ANSI_RED + "K" + ANSI_RESET);
+                } else if (n == 3) {
+                    sb.append(ANSI_YELLOW + "B" + ANSI_RESET);
+                } else if (n == 4) {
+                    sb.append(ANSI_YELLOW + "K" + ANSI_RESET);
+                }
+                sb.append(" ");
+            }
+            sb.append(System.lineSeparator());
+        }
+        sb.append("  a b c d e f g h");
+
+        return sb.toString();
+    }
+
+    /**
+     * Set up the board with checkers in position for the beginning
+     * of a game.  Note that checkers can only be found in squares
+     * that satisfy  row % 2 == col % 2.  At the start of the game,
+     * all such squares in the first three rows contain black squares
+     * and all such squares in the last three rows contain red squares.
+     */
+    void setUpGame() {
+        // BLACK fills rows 0-2 (bits 0-11), RED fills rows 5-7 (bits 20-31)
+        black = 0x00000FFF;
+        red = 0xFFF00000;
+        kings = 0;
+        // RED moves first, so the side key is not included
+        zobrist = 0;
+        position = 0;
+        for (int sq = 0; sq < 32; sq++) {
+            zobrist ^= squareKey(sq);
+            position += squareScore(sq);
+        }
+    }
+
+
+    /**
+     * Return the contents of the square in the specified row and column.
+     */
+    int pieceAt(int row, int col) {
+        if (row % 2 == col % 2) {
+            return EMPTY;
+        }
+        int bit = 1 << square(row, col);
+        if ((red & bit) != 0) {
+            return (kings & bit) != 0 ? RED_KING : RED;
+        }
+        if ((black & bit) != 0) {
+            return (kings & bit) != 0 ? BLACK_KING : BLACK;
+        }
+        return EMPTY;
+    }
+
+
+    /**
+     * Put the specified piece (or EMPTY) on the square in the specified
+     * row and column.  Squares with row % 2 == col % 2 can never hold a
+     * piece and are left unchanged.
+     */
+    void setPieceAt(int row, int col, int piece) {
+        if (row % 2 == col % 2) {
+            return;
+        }
+        int sq = square(row, col);
+        int bit = 1 << sq;
+        zobrist ^= squareKey(sq);
+        position -= squareScore(sq);
+        red &= ~bit;
+        black &= ~bit;
+        kings &= ~bit;
+        if (piece == RED || piece == RED_KING) {
+            red |= bit;
+        } else if (piece == BLACK || piece == BLACK_KING) {
+            black |= bit;
+        }
+        if (piece == RED_KING || piece == BLACK_KING) {
+            kings |= bit;
+        }
+        zobrist ^= squareKey(sq);
+        position += squareScore(sq);
+    }
+
+
+    /**
+     * Return the position as the other player sees it: the board turned
+     * 180 degrees with RED and BLACK swapped, and the other player to
+     * move.  A search that always plays BLACK can play RED on the mirrored
+     * board; its moves are mapped back with CheckersMove.mirror().
+     */
+    CheckersData mirror() {
+        // Turning the board maps square s to 31 - s, which reverses the bits
+        CheckersData mirrored = new CheckersData(this);
+        mirrored.red = Integer.reverse(black);
+        mirrored.black = Integer.reverse(red);
+        mirrored.kings = Integer.reverse(kings);
+        long pieces = 0;
+        long mirroredPieces = 0;
+        for (int sq = 0; sq < 32; sq++) {
+            pieces ^= squareKey(sq);
+            mirroredPieces ^= mirrored.squareKey(sq);
+        }
+        mirrored.zobrist = mirroredPieces ^ (zobrist ^ pieces) ^ SIDE_KEY;
+        mirrored.position = -position;  // The scores are symmetric under the turn
+        return mirrored;
+    }
+
+
+    /**
+     * Return true if other has the same pieces on the same squares.
+     */
+    boolean samePosition(CheckersData other) {
+        return red == other.red && black == other.black && kings == other.kings;
+    }
+
+
+    /**
+     * Make the specified move.  It is assumed that move
+     * is non-null and that the move it represents is legal.
+     *
+     * Make a single move or a sequence of jumps
+     * recorded in rows and cols.
+     *
+     */
+    void makeMove(CheckersMove move) {
+        int l = move.rows.size();
+        for(int i = 0; i < l-1; i++)
+            makeMove(move.rows.get(i), move.cols.get(i), move.rows.get(i+1), move.cols.get(i+1));
+        zobrist ^= SIDE_KEY;
+    }
+
+
+    /**
+     * Make the move from (fromRow,fromCol) to (toRow,toCol).  It is
+     * assumed that this move is legal.  If the move is a jump, the
+     * jumped piece is removed from the board.  If a piece moves to
+     * the last row on the opponent's side of the board, the
+     * piece becomes a king.
+     *
+     * @param fromRow row index of the from square
+     * @param fromCol column index of the from square
+     * @param toRow   row index of the to square
+     * @param toCol   column index of the to square
+     */
+    void makeMove(int fromRow, int fromCol, int toRow, int toCol) {
+        // Move the piece from (fromRow,fromCol) to (toRow,toCol)
+        int fromSq = square(fromRow, fromCol);
+        int toSq = square(toRow, toCol);
+        int jumpedSq = square((fromRow + toRow) / 2, (fromCol + toCol) / 2);
+        boolean isJump = Math.abs(fromRow - toRow) == 2;
+        zobrist ^= squareKey(fromSq) ^ squareKey(toSq) ^ (isJump ? squareKey(jumpedSq) : 0);
+        position -= squareScore(fromSq) + squareScore(toSq) + (isJump ? squareScore(jumpedSq) : 0);
+
+        int from = 1 << fromSq;
+        int to = 1 << toSq;
+        boolean isRed = (red & from) != 0;
+        if (isRed) {
+            red ^= from | to;
+        } else {
+            black ^= from | to;
+        }
+        if ((kings & from) != 0) {
+            kings ^= from | to;
+        }
+
+        // If this is a jump, remove the captured piece
+        if (isJump) {
+            int jumped = ~(1 << jumpedSq);
+            red &= jumped;
+            black &= jumped;
+            kings &= jumped;
+        }
+
+        // Crown the piece if it reaches the king's row
+        if ((toRow == 0 && isRed) || (toRow == 7 && !isRed)) {
+            kings |= to;
+        }
+        zobrist ^= squareKey(fromSq) ^ squareKey(toSq);
+        position += squareScore(fromSq) + squareScore(toSq);
+    }
+
+    /**
+     * Return an array containing all the legal CheckersMoves
+     * for the specified player on the current board.  If the player
+     * has no legal moves, null is returned.  The value of player
+     * should be one of the constants RED or BLACK; if not, null
+     * is returned.  If the returned value is non-null, it consists
+     * entirely of jump moves or entirely of regular moves, since
+     * if the player can jump, only jumps are legal moves.
+     *
+     * @param player color of the player, RED or BLACK
+     */
+    CheckersMove[] getLegalMoves(int player) {
+        if (player != RED && player != BLACK) {
+            return null;
+        }
+
+        int own = player == RED ? red : black;
+        int opp = player == RED ? black : red;
+        int empty = ~(red | black);
+        int up = player == RED ? own : own & kings;      // pieces that may move up
+        int down = player == BLACK ? own : own & kings;  // pieces that may move down
+
+        ArrayList<CheckersMove> moves = new ArrayList<CheckersMove>();
+
+        // First, check for jumps (they are mandatory).  A piece can jump in
+        // a direction if the next square holds an opponent and the square
+        // after it is empty.
+        int jumpers = (up & downRight(opp & downRight(empty)))
+                | (up & downLeft(opp & downLeft(empty)))
+                | (down & upRight(opp & upRight(empty)))
+                | (down & upLeft(opp & upLeft(empty)));
+        int[] path = new int[32];  // Local, so that threads may share a board for reading
+        while (jumpers != 0) {
+            int sq = Integer.numberOfTrailingZeros(jumpers);
+            jumpers &= jumpers - 1;
+            findJumps(player, sq, sq, (kings & (1 << sq)) != 0, opp, empty, 0, path, 0, moves, null, 0);
+        }
+
+        // If there are jumps available, return only jumps (mandatory)
+        if (moves.size() > 0) {
+            CheckersMove[] moveArray = new CheckersMove[moves.size()];
+            return moves.toArray(moveArray);
+        }
+
+        // No jumps available, so check for regular moves.  Each mask holds
+        // the pieces whose neighbor in that direction is empty.
+        int upLeft = up & downRight(empty);
+        int upRight = up & downLeft(empty);
+        int downLeft = down & upRight(empty);
+        int downRight = down & upLeft(empty);
+        int movers = upLeft | upRight | downLeft | downRight;
+        while (movers != 0) {
+            int sq = Integer.numberOfTrailingZeros(movers);
+            int bit = 1 << sq;
+            movers &= movers - 1;
+            int row = sq >> 2, col = column(sq);
+            // Check all four diagonal directions
+            if ((upLeft & bit) != 0) {
+                moves.add(new CheckersMove(row, col, row - 1, col - 1));
+            }
+            if ((upRight & bit) != 0) {
+                moves.add(new CheckersMove(row, col, row - 1, col + 1));
+            }
+            if ((downLeft & bit) != 0) {
+                moves.add(new CheckersMove(row, col, row + 1, col - 1));
+            }
+            if ((downRight & bit) != 0) {
+                moves.add(new CheckersMove(row, col, row + 1, col + 1));
+            }
+        }
+
+        if (moves.size() == 0) {
+            return null;
+        } else {
+            CheckersMove[] moveArray = new CheckersMove[moves.size()];
+            return moves.toArray(moveArray);
+        }
+    }
+
+
+    /**
+     * Return a list of the legal jumps that the specified player can
+     * make starting from the specified row and column.  If no such
+     * jumps are possible, null is returned.  The logic is similar
+     * to the logic of the getLegalMoves() method.
+     *
+     * Note that each CheckerMove may contain multiple jumps. 
+     * Each move returned in the array represents a sequence of jumps 
+     * until no further jump is allowed.
+     *
+     * @param player The player of the current jump, either RED or BLACK.
+     * @param row    row index of the start square.
+     * @param col    col index of the start square.
+     */
+    CheckersMove[] getLegalJumpsFrom(int player, int row, int col) {
+        ArrayList<CheckersMove> jumps = new ArrayList<CheckersMove>();
+        int piece = pieceAt(row, col);
+        if (piece == player || piece == player + 1) {
+            int opp = player == RED ? black : red;
+            int sq = square(row, col);
+            findJumps(player, sq, sq, piece == player + 1, opp, ~(red | black), 0,
+                    new int[32], 0, jumps, null, 0);
+        }
+
+        if (jumps.size() == 0) {
+            return null;
+        } else {
+            CheckersMove[] jumpArray = new CheckersMove[jumps.size()];
+            return jumps.toArray(jumpArray);
+        }
+    }
+
+    /**
+     * Recursive helper to find all jump sequences from a square.  The
+     * position after the jumps made so far is described by opp (the
+     * opponent pieces still on the board), empty and captured; the
+     * jumping piece itself has been lifted from its start square.  A man
+     * that reaches the king's row is crowned and keeps jumping as a king.
+     *
+     * Completed sequences are added to allMoves if it is non-null, with
+     * the squares visited so far kept in path, and otherwise stored as
+     * packed moves in moves starting at index count, or only counted if
+     * moves is null as well.  A packed move only needs the start square,
+     * from, so path may then be null.  Returns the new number of packed
+     * moves.
+     */
+    private int findJumps(int player, int from, int sq, boolean king, int opp, int empty, int captured,
+                          int[] path, int depth, ArrayList<CheckersMove> allMoves,
+                          long[] moves, int count) {
+        if (path != null) {
+            path[depth] = sq;
+        }
+        int bit = 1 << sq;
+        boolean foundJump = false;
+
+        // Try all four diagonal jump directions
+        for (int dir = UP_LEFT; dir <= DOWN_RIGHT; dir++) {
+            // Regular pieces can only jump in one direction
+            if (!king && (dir <= UP_RIGHT) != (player == RED)) {
+                continue;
+            }
+            int jumped = step(bit, dir);
+            if ((jumped & opp) == 0) {
+                continue;
+            }
+            int to = step(jumped, dir);
+            if ((to & empty) == 0) {
+                continue;
+            }
+            foundJump = true;
+
+            int toSq = Integer.numberOfTrailingZeros(to);
+            int toRow = toSq >> 2;
+            boolean crowned = king || (player == RED ? toRow == 0 : toRow == 7);
+            count = findJumps(player, from, toSq, crowned, opp & ~jumped, (empty | bit | jumped) & ~to,
+                    captured | jumped, path, depth + 1, allMoves, moves, count);
+        }
+
+        // If no more jumps found, add the current move sequence
+        if (!foundJump && depth > 0) {
+            if (allMoves != null) {
+                CheckersMove move = new CheckersMove();
+                for (int i = 0; i <= depth; i++) {
+                    move.addMove(path[i] >> 2, column(path[i]));
+                }
+                allMoves.add(move);
+            } else if (moves != null) {
+                boolean crowns = king && (kings & (1 << from)) == 0;
+                moves[count++] = packMove(from, sq, captured, crowns);
+            } else {
+                count++;
+            }
+        }
+        return count;
+    }
+
+
+    /**
+     * Store all the legal moves for the specified player in moves as
+     * packed moves and return how many there are (0 if the player cannot
+     * move).  The moves come in the same order as from getLegalMoves(),
+     * and as with getLegalMoves(), only jumps are returned if the player
+     * can jump.  moves must hold at least MAX_MOVES entries.
+     *
+     * @param player color of the player, RED or BLACK
+     * @param moves  buffer that receives the packed moves
+     */
+    int generateMoves(int player, long[] moves) {
+        int own = player == RED ? red : black;
+        int opp = player == RED ? black : red;
+        int empty = ~(red | black);
+        int up = player == RED ? own : own & kings;
+        int down = player == BLACK ? own : own & kings;
+        int count = 0;
+
+        int jumpers = (up & downRight(opp & downRight(empty)))
+                | (up & downLeft(opp & downLeft(empty)))
+                | (down & upRight(opp & upRight(empty)))
+                | (down & upLeft(opp & upLeft(empty)));
+        while (jumpers != 0) {
+            int sq = Integer.numberOfTrailingZeros(jumpers);
+            jumpers &= jumpers - 1;
+            count = findJumps(player, sq, sq, (kings & (1 << sq)) != 0, opp, empty, 0, null, 0,
+                    null, moves, count);
+        }
+        if (count > 0) {
+            return count;
+        }
+
+        int upLeft = up & downRight(empty);
+        int upRight = up & downLeft(empty);
+        int downLeft = down & upRight(empty);
+        int downRight = down & upLeft(empty);
+        int movers = upLeft | upRight | downLeft | downRight;
+        // A man moving one square can only be crowned by reaching the last row
+        int crownRow = player == RED ? 0x0000000F : 0xF0000000;
+        while (movers != 0) {
+            int sq = Integer.numberOfTrailingZeros(movers);
+            int bit = 1 << sq;
+            movers &= movers - 1;
+            boolean man = (kings & bit) == 0;
+            if ((upLeft & bit) != 0) {
+                count = addStep(moves, count, sq, upLeft(bit), man, crownRow);
+            }
+            if ((upRight & bit) != 0) {
+                count = addStep(moves, count, sq, upRight(bit), man, crownRow);
+            }
+            if ((downLeft & bit) != 0) {
+                count = addStep(moves, count, sq, downLeft(bit), man, crownRow);
+            }
+            if ((downRight & bit) != 0) {
+                count = addStep(moves, count, sq, downRight(bit), man, crownRow);
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Return the number of legal moves for the specified player, the
+     * value generateMoves() would return, without generating the moves:
+     * simple moves are counted with popcounts, and only jump sequences
+     * are followed.
+     *
+     * @param player color of the player, RED or BLACK
+     */
+    int countMoves(int player) {
+        int own = player == RED ? red : black;
+        int opp = player == RED ? black : red;
+        int empty = ~(red | black);
+        int up = player == RED ? own : own & kings;
+        int down = player == BLACK ? own : own & kings;
+
+        int jumpers = (up & downRight(opp & downRight(empty)))
+                | (up & downLeft(opp & downLeft(empty)))
+                | (down & upRight(opp & upRight(empty)))
+                | (down & upLeft(opp & upLeft(empty)));
+        if (jumpers != 0) {
+            int count = 0;
+            while (jumpers != 0) {
+                int sq = Integer.numberOfTrailingZeros(jumpers);
+                jumpers &= jumpers - 1;
+                count = findJumps(player, sq, sq, (kings & (1 << sq)) != 0, opp, empty, 0, null, 0,
+                        null, null, count);
+            }
+            return count;
+        }
+        return Integer.bitCount(up & downRight(empty)) + Integer.bitCount(up & downLeft(empty))
+                + Integer.bitCount(down & upRight(empty)) + Integer.bitCount(down & upLeft(empty));
+    }
+
+    private static int addStep(long[] moves, int count, int from, int to, boolean man, int crownRow) {
+        moves[count] = packMove(from, Integer.numberOfTrailingZeros(to), 0, man && (to & crownRow) != 0);
+        return count + 1;
+    }
+
+
+    /**
+     * Make the specified packed move and return the undo record needed by
+     * unmakeMove(): the set of captured squares that held kings.  Together
+     * with the move itself (captured squares and crowning flag) this is
+     * enough to restore the position.
+     */
+    int makeMove(long move) {
+        int from = 1 << moveFrom(move);
+        int to = 1 << moveTo(move);
+        int captured = moveCaptures(move);
+        int capturedKings = kings & captured;
+        boolean isRed = (red & from) != 0;
+        boolean wasKing = (kings & from) != 0;
+        boolean king = wasKing || (move & CROWNS) != 0;
+        zobrist ^= moveKey(move, isRed, wasKing, king, capturedKings);
+        position += moveScore(move, isRed, wasKing, king, capturedKings);
+
+        if (isRed) {
+            red = (red & ~from) | to;
+            black &= ~captured;
+        } else {
+            black = (black & ~from) | to;
+            red &= ~captured;
+        }
+        kings &= ~(captured | from);
+        if (king) {
+            kings |= to;
+        }
+        return capturedKings;
+    }
+
+    /**
+     * Take back a packed move made with makeMove(long).
+     *
+     * @param move          the move that was made
+     * @param capturedKings the undo record returned by makeMove(long)
+     */
+    void unmakeMove(long move, int capturedKings) {
+        int from = 1 << moveFrom(move);
+        int to = 1 << moveTo(move);
+        int captured = moveCaptures(move);
+
+        boolean isRed = (red & to) != 0;
+        boolean king = (kings & to) != 0;
+        boolean wasKing = king && (move & CROWNS) == 0;
+        zobrist ^= moveKey(move, isRed, wasKing, king, capturedKings);
+        position -= moveScore(move, isRed, wasKing, king, capturedKings);
+
+        if (isRed) {
+            red = (red & ~to) | from;
+            black |= captured;
+        } else {
+            black = (black & ~to) | from;
+            red |= captured;
+        }
+        kings &= ~to;
+        if (wasKing) {
+            kings |= from;
+        }
+        kings |= capturedKings;
+    }
+
+    /**
+     * Return the Zobrist key of the piece on the specified square, or 0
+     * if the square is empty.
+     */
+    private long squareKey(int sq) {
+        int bit = 1 << sq;
+        if (((red | black) & bit) == 0) {
+            return 0;
+        }
+        return pieceKey((red & bit) != 0, (kings & bit) != 0, sq);
+    }
+
+    private static long pieceKey(boolean isRed, boolean king, int sq) {
+        return PIECE_KEYS[((isRed ? 0 : 2) + (king ? 1 : 0)) * 32 + sq];
+    }
+
+    /**
+     * Return the change of the Zobrist key caused by a packed move; the
+     * same value undoes it.
+     */
+    private static long moveKey(long move, boolean isRed, boolean wasKing, boolean king,
+                                int capturedKings) {
+        long key = SIDE_KEY ^ pieceKey(isRed, wasKing, moveFrom(move)) ^ pieceKey(isRed, king, moveTo(move));
+        int captured = moveCaptures(move);
+        while (captured != 0) {
+            int sq = Integer.numberOfTrailingZeros(captured);
+            captured &= captured - 1;
+            key ^= pieceKey(!isRed, (capturedKings & (1 << sq)) != 0, sq);
+        }
+        return key;
+    }
+
+
+    /**
+     * Return the positional score of the piece on the specified square,
+     * or 0 if the square is empty.
+     */
+    private int squareScore(int sq) {
+        int bit = 1 << sq;
+        if (((red | black) & bit) == 0) {
+            return 0;
+        }
+        return PIECE_SCORES[(((red & bit) != 0 ? 0 : 2) + ((kings & bit) != 0 ? 1 : 0)) * 32 + sq];
+    }
+
+    /**
+     * Return the change of the positional score caused by a packed move;
+     * subtracting it undoes the move.
+     */
+    private static int moveScore(long move, boolean isRed, boolean wasKing, boolean king,
+                                 int capturedKings) {
+        int type = isRed ? 0 : 2;
+        int score = PIECE_SCORES[(type + (king ? 1 : 0)) * 32 + moveTo(move)]
+                - PIECE_SCORES[(type + (wasKing ? 1 : 0)) * 32 + moveFrom(move)];
+        int captured = moveCaptures(move);
+        while (captured != 0) {
+            int sq = Integer.numberOfTrailingZeros(captured);
+            captured &= captured - 1;
+            score -= PIECE_SCORES[((2 - type) + ((capturedKings & (1 << sq)) != 0 ? 1 : 0)) * 32 + sq];
+        }
+        return score;
+    }
+
+    /**
+     * Return the packed form of a legal move for the current position.
+     */
+    long packMove(CheckersMove move) {
+        int last = move.rows.size() - 1;
+        int from = square(move.rows.get(0), move.cols.get(0));
+        boolean isRed = (red & (1 << from)) != 0;
+        boolean crowns = false;
+        int captured = 0;
+        for (int i = 1; i <= last; i++) {
+            int row = move.rows.get(i);
+            if (Math.abs(row - move.rows.get(i - 1)) == 2) {
+                captured |= 1 << square((row + move.rows.get(i - 1)) / 2,
+                        (move.cols.get(i) + move.cols.get(i - 1)) / 2);
+            }
+            crowns |= isRed ? row == 0 : row == 7;
+        }
+        crowns &= (kings & (1 << from)) == 0;
+        return packMove(from, square(move.rows.get(last), move.cols.get(last)), captured, crowns);
+    }
+
+    static long packMove(int from, int to, int captured, boolean crowns) {
+        return (captured & 0xFFFFFFFFL) | ((long) from << FROM_SHIFT) | ((long) to << TO_SHIFT)
+                | (crowns ? CROWNS : 0);
+    }
+
+    static int moveFrom(long move) {
+        return (int) (move >>> FROM_SHIFT) & 31;
+    }
+
+    static int moveTo(long move) {
+        return (int) (move >>> TO_SHIFT) & 31;
+    }
+
+    static int moveCaptures(long move) {
+        return (int) move;
+    }
+
+    static boolean moveCrowns(long move) {
+        return (move & CROWNS) != 0;
+    }
+
+    /**
+     * Return the bit index of the playable square (row, col).
+     */
+    static int square(int row, int col) {
+        return row * 4 + col / 2;
+    }
+
+    /**
+     * Return the column of the playable square with the given bit index.
+     */
+    static int column(int sq) {
+        return ((sq & 3) << 1) + (((sq >> 2) & 1) == 0 ? 1 : 0);
+    }
+
+    /*  Step functions: each maps a set of squares to the set of their
+        neighbors in one diagonal direction, dropping squares that would
+        leave the board. */
+
+    private static int upLeft(int m) {
+        return ((m & EVEN_ROWS) >>> 4) | ((m & ODD_ROWS & ~LEFT_EDGE) >>> 5);
+    }
+
+    private static int upRight(int m) {
+        return ((m & EVEN_ROWS & ~RIGHT_EDGE) >>> 3) | ((m & ODD_ROWS) >>> 4);
+    }
+
+    private static int downLeft(int m) {
+        return ((m & EVEN_ROWS) << 4) | ((m & ODD_ROWS & ~LEFT_EDGE) << 3);
+    }
+
+    private static int downRight(int m) {
+        return ((m & EVEN_ROWS & ~RIGHT_EDGE) << 5) | ((m & ODD_ROWS) << 4);
+    }
+
+    private static int step(int m, int dir) {
+        switch (dir) {
+            case UP_LEFT: return upLeft(m);
+            case UP_RIGHT: return upRight(m);
+            case DOWN_LEFT: return downLeft(m);
+            default: return downRight(m);
+        }
+    }
+
+}
@@ -65,4 +65,29 @@ public class CheckersMove {
         
     }
     
+    //the squares of the move as (row,col)-(row,col)-...
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        
+        for (int i = 0; i < rows.size(); i++) {
+            text.append(i == 0 ? "" : "-").append('(').append(rows.get(i)).append(',')
+                    .append(cols.get(i)).append(')');
+        }
+        
+        return text.toString();
+    }
+    
+    //get this move as seen on the board turned 180 degrees
+    //(see CheckersData.mirror())
+    CheckersMove mirror() {
+        CheckersMove move = new CheckersMove();
+        
+        for (int i = 0; i < rows.size(); i++) {
+            move.addMove(7 - rows.get(i), 7 - cols.get(i));
+        }
+        
+        return move;
+    }
+    
 }  // end class CheckersMove.
@@ -0,0 +1,222 @@
+package edu.iastate.cs472.proj2;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Node type for the Monte Carlo search tree.
+ *
+ * Several threads may search the same tree.  visits and wins are only
+ * changed through addVisits() and addWins(), which update them with
+ * compare-and-set, and children is a copy-on-write list so it can be read
+ * while another thread expands the node.
+ *
+ * proven records a game-theoretic result once the search has proved one
+ * (MCTS-Solver): WIN or LOSS for the player to move at the node, in
+ * provenPlies plies with the moves the proof found.  Like the counts it
+ * can be read at any time; once set it never changes.
+ */
+public class MCNode {
+    CheckersData state;           // Game state at this node
+    CheckersMove move;            // Move that led to this state (null for root)
+    MCNode parent;                // Parent node
+    List<MCNode> children;        // Child nodes
+    volatile int visits;          // Number of times this node has been visited
+    volatile double wins;         // Number of wins from this node (can be fractional for draws)
+    boolean isBlackTurn;          // Whose turn it is at this state
+    private volatile CheckersMove[] legalMoves; // Moves at this state, generated on first use
+    volatile int nextUntried;     // Index in legalMoves of the next move to expand
+    volatile int proven;          // UNPROVEN, or WIN or LOSS for the player to move
+    volatile int provenPlies;     // Plies to the end of the game once proven
+
+    static final int UNPROVEN = 0;
+    static final int WIN = 1;
+    static final int LOSS = 2;
+
+    private static final CheckersMove[] NO_MOVES = new CheckersMove[0];
+
+    private static final VarHandle VISITS;
+    private static final VarHandle WINS;
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            VISITS = lookup.findVarHandle(MCNode.class, "visits", int.class);
+            WINS = lookup.findVarHandle(MCNode.class, "wins", double.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    
+    /**
+     * Constructor for root node.
+     */
+    public MCNode(CheckersData state, boolean isBlackTurn) {
+        this.state = state;
+        this.move = null;
+        this.parent = null;
+        this.children = new CopyOnWriteArrayList<MCNode>();
+        this.visits = 0;
+        this.wins = 0.0;
+        this.isBlackTurn = isBlackTurn;
+    }
+    
+    /**
+     * Constructor for child node.
+     */
+    public MCNode(CheckersData state, CheckersMove move, MCNode parent, boolean isBlackTurn) {
+        this.state = state;
+        this.move = move;
+        this.parent = parent;
+        this.children = new CopyOnWriteArrayList<MCNode>();
+        this.visits = 0;
+        this.wins = 0.0;
+        this.isBlackTurn = isBlackTurn;
+    }
+    
+    /**
+     * Return the legal moves of the player to move, generating them on the
+     * first call.  The array is empty at a terminal node.  Children are
+     * expanded in the order of this array.
+     */
+    CheckersMove[] getLegalMoves() {
+        CheckersMove[] moves = legalMoves;
+        if (moves == null) {
+            int player = isBlackTurn ? CheckersData.BLACK : CheckersData.RED;
+            moves = state.getLegalMoves(player);
+            if (moves == null) {
+                moves = NO_MOVES;
+            }
+            legalMoves = moves;
+        }
+        return moves;
+    }
+    
+    /**
+     * Check if this node is fully expanded (all children have been created).
+     */
+    public boolean isFullyExpanded() {
+        return nextUntried >= getLegalMoves().length; // Also true at a terminal node
+    }
+    
+    /**
+     * Check if this is a terminal node (no legal moves available).
+     */
+    public boolean isTerminal() {
+        return getLegalMoves().length == 0;
+    }
+    
+    /**
+     * Return true once the result of this node has been proved.
+     */
+    boolean isProven() {
+        return proven != UNPROVEN;
+    }
+    
+    /**
+     * Return true once the children prove the result of this node and
+     * every move has a child, so the quickest proved win among them is
+     * known.
+     */
+    boolean isSolved() {
+        return isFullyExpanded() && childProof() != UNPROVEN;
+    }
+    
+    /**
+     * Record the result of this node, proved to come in the given number
+     * of plies.  provenPlies is written first, so a reader that sees the
+     * result also sees its distance.
+     */
+    void prove(int result, int plies) {
+        provenPlies = plies;
+        proven = result;
+    }
+    
+    /**
+     * Prove this node from its children if they decide it (see
+     * childProof()).  Return true if the node has just been proved.
+     */
+    boolean updateProof() {
+        if (proven != UNPROVEN) {
+            return false;
+        }
+        int result = childProof();
+        if (result == UNPROVEN) {
+            return false;
+        }
+        prove(result, childPlies(result));
+        return true;
+    }
+    
+    /**
+     * Return the plies to the end for the result the children prove: one
+     * more than the quickest child lost for the opponent for a win, and
+     * one more than the slowest child for a loss (0 at a terminal node).
+     */
+    private int childPlies(int result) {
+        int plies = result == WIN ? Integer.MAX_VALUE : -1;
+        for (MCNode child : children) {
+            if (result == LOSS) {
+                plies = Math.max(plies, child.provenPlies);
+            } else if (child.proven == LOSS) {
+                plies = Math.min(plies, child.provenPlies);
+            }
+        }
+        return plies + 1;
+    }
+    
+    /**
+     * Return the result the children prove for the player to move: WIN
+     * if some move leads to a child lost for the opponent, LOSS if every
+     * move has a child and all of them are won for the opponent (so a
+     * terminal node is lost), otherwise UNPROVEN.  A node proved from the
+     * endgame tables may not be proved by its children yet.
+     */
+    int childProof() {
+        // Read before the children, which are added before nextUntried grows
+        boolean allWon = isFullyExpanded();
+        for (MCNode child : children) {
+            int result = child.proven;
+            if (result == LOSS) {
+                return WIN;
+            }
+            allWon &= result == WIN;
+        }
+        return allWon ? LOSS : UNPROVEN;
+    }
+    
+    /**
+     * Atomically add n to the visit count.  n may be negative to take
+     * back a virtual loss.
+     */
+    void addVisits(int n) {
+        VISITS.getAndAdd(this, n);
+    }
+
+    /**
+     * Atomically add w to the win count.
+     */
+    void addWins(double w) {
+        double current;
+        do {
+            current = wins;
+        } while (!WINS.compareAndSet(this, current, current + w));
+    }
+    
+    /**
+     * Get the UCB1 value for this node.
+     */
+    public double getUCB1(double explorationConstant) {
+        int visits = this.visits;
+        if (visits == 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        
+        double exploitation = wins / visits;
+        double exploration = explorationConstant * Math.sqrt(Math.log(parent.visits) / visits);
+        
+        return exploitation + exploration;
+    }
+}
+
@@ -0,0 +1,99 @@
+package edu.iastate.cs472.proj2; 
+
+/** 
+ * A Monte Carlo search tree kept between moves.  After the engine has
+ * moved and the opponent has replied, advance() moves the root down to
+ * the grandchild for the new position, so the statistics gathered under
+ * it are reused by the next search.  A tree grown while pondering may
+ * instead have its root at the opponent's turn, in which case the new
+ * position is a child of the root.
+ * 
+ * @author Hrishikesh Uchake
+ *
+ */
+public class MCTree 
+{
+	MCNode root;
+	int size;   // Number of nodes in the tree
+
+	/**
+	 * Make the grandchild of the root whose state is the given position the
+	 * new root, detaching it from its parent.  If it is RED's turn at the
+	 * root, a child of the root is looked for instead.  Returns false,
+	 * leaving the tree unchanged, if there is no such node.
+	 */
+	boolean advance(CheckersData position)
+	{
+		if (root == null)
+			return false;
+		for (MCNode child : root.children)
+		{
+			if (!root.isBlackTurn)
+			{
+				if (child.state.samePosition(position))
+					return adopt(child);
+				continue;
+			}
+			for (MCNode grandchild : child.children)
+			{
+				if (grandchild.state.samePosition(position))
+					return adopt(grandchild);
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Return the child of the root whose state is the given position, or
+	 * null if there is none.
+	 */
+	MCNode findChild(CheckersData position)
+	{
+		if (root == null)
+			return null;
+		for (MCNode child : root.children)
+		{
+			if (child.state.samePosition(position))
+				return child;
+		}
+		return null;
+	}
+
+	private boolean adopt(MCNode node)
+	{
+		node.parent = null;
+		node.move = null;
+		root = node;
+		size = countNodes(root);
+		return true;
+	}
+
+	/**
+	 * Replace the tree with the given root.
+	 */
+	void reset(MCNode root)
+	{
+		this.root = root;
+		size = countNodes(root);
+	}
+
+	/**
+	 * Forget the tree; the next search starts from a new root.
+	 */
+	void clear()
+	{
+		root = null;
+		size = 0;
+	}
+
+	/**
+	 * Return the number of nodes in the subtree under node.
+	 */
+	static int countNodes(MCNode node)
+	{
+		int count = 1;
+		for (MCNode child : node.children)
+			count += countNodes(child);
+		return count;
+	}
+}
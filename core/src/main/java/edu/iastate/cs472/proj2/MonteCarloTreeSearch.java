@@ -0,0 +1,628 @@
+package edu.iastate.cs472.proj2;
+
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 
+ * @author Hrishikesh Uchake
+ *
+ */
+
+/**
+ * This class implements the Monte Carlo tree search method to find the best
+ * move at the current state.
+ *
+ * With more than one thread (see setThreads) there are two parallel modes
+ * (see setParallelMode):
+ *
+ * SHARED_TREE: all threads run iterations on one shared tree.  A thread
+ * adds a virtual loss (an extra visit with no win) to every node on its
+ * path during selection and takes it back in backpropagation, so other
+ * threads are steered to different branches while its playout is running.
+ *
+ * ROOT_PARALLEL: each thread grows its own tree with its own random number
+ * generator and share of the iterations.  At the end the visits and wins
+ * of the root children are summed over all trees before the move is
+ * chosen.  The threads share nothing while they search.
+ */
+public class MonteCarloTreeSearch extends AdversarialSearch {
+    
+    private static final double EXPLORATION_CONSTANT = Math.sqrt(2); // C = √2 (theoretically optimal)
+    private static final int ITERATIONS = 3000; // Number of MCTS iterations
+    private static final int VIRTUAL_LOSS = 1; // Visits added per thread on the selected path
+    private static final int MAX_PONDER_ITERATIONS = 500000; // Bounds the tree grown while pondering
+    private java.util.Random random = new java.util.Random();
+
+    /*  Parallel modes, used when there is more than one thread. */
+    static final int
+            SHARED_TREE = 0,
+            ROOT_PARALLEL = 1;
+
+    private long moveTime = 0;               // Time budget per move (ms), 0 for ITERATIONS
+    private long deadline;                   // System.nanoTime() at which to stop, 0 for none
+    private volatile boolean stopped;        // Set when the search is interrupted, for every thread
+    private volatile MCNode searchRoot;      // Root of the search in progress, for getProgress()
+    private int threads = 1;                 // Threads running iterations
+    private int parallelMode = SHARED_TREE;  // How the threads divide the work
+    private ExecutorService pool;            // Runs the extra threads
+    private double[] playoutRates = new double[0]; // Playouts per second of each root-parallel worker
+
+    private final MCTree tree = new MCTree(); // Search tree kept between moves
+    private Tablebase tablebase = Tablebase.getDefault(); // Ends playouts that reach a small endgame
+
+    /**
+     * The board and move buffer a thread reuses for every playout, so
+     * that a playout allocates nothing.
+     */
+    private static final class Playout {
+        final CheckersData board = new CheckersData();
+        final long[] moves = new long[CheckersData.MAX_MOVES];
+    }
+
+    private static final ThreadLocal<Playout> PLAYOUTS = ThreadLocal.withInitial(Playout::new);
+
+    /**
+     * Set the wall-clock time makeMove() may spend on one move.  With 0
+     * (the default) every move runs ITERATIONS iterations instead.
+     *
+     * @param millis time budget per move in milliseconds, or 0
+     */
+    public void setMoveTime(long millis) {
+        moveTime = millis;
+    }
+
+    /**
+     * Drop the tree kept between moves, so that the next search starts
+     * from a new root.
+     */
+    public void newGame() {
+        tree.clear();
+    }
+
+    /**
+     * Use the given endgame tables instead of the default ones (see
+     * Tablebase.getDefault()).
+     */
+    void setTablebase(Tablebase tablebase) {
+        this.tablebase = tablebase;
+    }
+
+    /**
+     * Choose how several threads search: SHARED_TREE or ROOT_PARALLEL.
+     */
+    public void setParallelMode(int mode) {
+        parallelMode = mode;
+    }
+
+    /**
+     * Return the playouts per second each worker ran in the last
+     * root-parallel search, one entry per thread.
+     */
+    public double[] getPlayoutRates() {
+        return playoutRates.clone();
+    }
+
+    /**
+     * Set the number of threads that run iterations.  With one thread
+     * (the default) the search runs on the calling thread only.
+     *
+     * @param threads number of search threads, at least 1
+     */
+    public void setThreads(int threads) {
+        threads = Math.max(1, threads);
+        if (threads == this.threads) {
+            return;
+        }
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+        this.threads = threads;
+        if (threads > 1) {
+            pool = Executors.newFixedThreadPool(threads - 1, r -> {
+                Thread thread = new Thread(r, "mcts worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+	/**
+     * The input parameter legalMoves contains all the possible moves.
+     * It contains four integers:  fromRow, fromCol, toRow, toCol
+     * which represents a move from (fromRow, fromCol) to (toRow, toCol).
+     * It also provides a utility method `isJump` to see whether this
+     * move is a jump or a simple move.
+     *
+     * Each legalMove in the input now contains a single move
+     * or a sequence of jumps: (rows[0], cols[0]) -> (rows[1], cols[1]) ->
+     * (rows[2], cols[2]).
+     *
+     * @param legalMoves All the legal moves for the agent at current step.
+     */
+    public CheckersMove makeMove(CheckersMove[] legalMoves) {
+        // The checker board state can be obtained from this.board,
+        // which is an 2D array of the following integers defined below:
+    	// 
+        // 0 - empty square,
+        // 1 - red man
+        // 2 - red king
+        // 3 - black man
+        // 4 - black king
+        if (printBoard) {
+            System.out.println(board);
+            System.out.println();
+        }
+
+        CheckersMove bookMove = bookMove(legalMoves);
+        if (bookMove != null) {
+            return bookMove; // Searched when the book was built
+        }
+
+        // Continue from the node for the current position if the tree of
+        // the last search reached it, otherwise create a new root node
+        if (!tree.advance(board)) {
+            tree.reset(new MCNode(copyBoard(board), true)); // BLACK's turn
+        }
+        MCNode root = tree.root;
+        deadline = moveTime > 0 ? System.nanoTime() + moveTime * 1000000L : 0;
+        stopped = false;
+        searchRoot = root;
+        
+        // Run MCTS iterations
+        if (threads == 1) {
+            for (int i = 0; moreIterations(root, i, ITERATIONS); i++) {
+                iterate(root, random, 0);
+            }
+        } else if (parallelMode == ROOT_PARALLEL) {
+            root = searchRootParallel(root);
+        } else {
+            searchSharedTree(root);
+        }
+        
+        tree.size = MCTree.countNodes(root);
+        
+        // Play a proved win, otherwise select the best move based on visit
+        // count (most robust)
+        return selectBestMove(root);
+    }
+    
+    /**
+     * Return true if another iteration should start on root after done
+     * have been started: without a move time until there have been the
+     * given number of iterations, otherwise until the deadline, but at
+     * least one.  None start once root is solved (see MCNode.isSolved()).
+     */
+    private boolean moreIterations(MCNode root, int done, int iterations) {
+        if (Thread.currentThread().isInterrupted()) {
+            stopped = true; // Cancelled: stop the other threads as well
+        }
+        if (root.isSolved()) {
+            return false; // selectBestMove() plays the proved result
+        }
+        if (stopped) {
+            return done == 0;
+        }
+        if (deadline == 0) {
+            return done < iterations;
+        }
+        return done == 0 || System.nanoTime() < deadline;
+    }
+    
+    /**
+     * Run all iterations on the given tree from every thread, taking
+     * iterations from one shared count.
+     */
+    private void searchSharedTree(MCNode root) {
+        AtomicInteger started = new AtomicInteger();
+        Future<?>[] workers = new Future<?>[threads - 1];
+        for (int i = 0; i < workers.length; i++) {
+            Random workerRandom = new Random(random.nextLong());
+            workers[i] = pool.submit(() -> {
+                while (moreIterations(root, started.getAndIncrement(), ITERATIONS)) {
+                    iterate(root, workerRandom, VIRTUAL_LOSS);
+                }
+            });
+        }
+        while (moreIterations(root, started.getAndIncrement(), ITERATIONS)) {
+            iterate(root, random, VIRTUAL_LOSS);
+        }
+        awaitWorkers(workers);
+    }
+    
+    /**
+     * Grow one tree per thread, the calling thread's tree being root, and
+     * return root with the root-child statistics of all trees added in.
+     */
+    private MCNode searchRootParallel(MCNode root) {
+        MCNode[] roots = new MCNode[threads];
+        double[] rates = new double[threads];
+        Future<?>[] workers = new Future<?>[threads - 1];
+        roots[0] = root;
+        for (int i = 1; i < threads; i++) {
+            int worker = i;
+            int iterations = ITERATIONS / threads + (i < ITERATIONS % threads ? 1 : 0);
+            Random workerRandom = new Random(random.nextLong());
+            roots[i] = new MCNode(copyBoard(root.state), root.isBlackTurn);
+            workers[i - 1] = pool.submit(() -> {
+                rates[worker] = runTimed(roots[worker], iterations, workerRandom);
+            });
+        }
+        rates[0] = runTimed(root, ITERATIONS / threads + (ITERATIONS % threads > 0 ? 1 : 0), random);
+        awaitWorkers(workers);
+
+        // Merge the root children of the other trees into root's
+        for (int i = 1; i < threads; i++) {
+            for (MCNode child : roots[i].children) {
+                MCNode same = null;
+                for (MCNode mine : root.children) {
+                    if (movesEqual(mine.move, child.move)) {
+                        same = mine;
+                        break;
+                    }
+                }
+                if (same == null) {
+                    child.parent = root;
+                    root.children.add(child);
+                } else {
+                    same.addVisits(child.visits);
+                    same.addWins(child.wins);
+                    // Proofs hold in every tree; keep the quickest
+                    if (child.isProven() && (!same.isProven() || child.provenPlies < same.provenPlies)) {
+                        same.prove(child.proven, child.provenPlies);
+                    }
+                }
+            }
+            // Every tree expands moves in the same order, so the merged
+            // children are the longest of the expanded prefixes
+            root.nextUntried = Math.max(root.nextUntried, roots[i].nextUntried);
+            root.addVisits(roots[i].visits);
+            root.addWins(roots[i].wins);
+        }
+        root.updateProof();
+
+        playoutRates = rates;
+        if (printBoard) {
+            for (int i = 0; i < threads; i++) {
+                System.out.printf("worker %d: %.0f playouts/s%n", i, rates[i]);
+            }
+        }
+        return root;
+    }
+    
+    /**
+     * Run the given number of iterations (or until the deadline, if there
+     * is one) on a tree of one thread's own and return the playouts per
+     * second.
+     */
+    private double runTimed(MCNode root, int iterations, Random random) {
+        long start = System.nanoTime();
+        int done = 0;
+        while (moreIterations(root, done, iterations)) {
+            iterate(root, random, 0);
+            done++;
+        }
+        return done / ((System.nanoTime() - start) / 1e9);
+    }
+    
+    /**
+     * Wait for the worker threads of a search to finish, even if the
+     * calling thread is interrupted meanwhile.
+     */
+    private static void awaitWorkers(Future<?>[] workers) {
+        boolean interrupted = false;
+        for (Future<?> worker : workers) {
+            while (true) {
+                try {
+                    worker.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("MCTS worker failed", e.getCause());
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    /**
+     * Run iterations on the node for the position set with
+     * setCheckersData(), RED to move, until the calling thread is
+     * interrupted or MAX_PONDER_ITERATIONS have run.  The node is normally
+     * the child of the root for the move just made, so the next makeMove()
+     * keeps the subtree under RED's actual reply.  Pondering runs on the
+     * calling thread only, and stops early once the node is solved.
+     */
+    public void ponder() {
+        MCNode node = tree.findChild(board);
+        if (node == null) {
+            tree.reset(new MCNode(copyBoard(board), false)); // RED's turn
+            node = tree.root;
+        }
+        searchRoot = node;
+        for (int i = 0; i < MAX_PONDER_ITERATIONS && !node.isSolved() && !Thread.currentThread().isInterrupted(); i++) {
+            iterate(node, random, 0);
+        }
+    }
+    
+    /**
+     * Return the number of playouts through the root of the search in
+     * progress, counting those kept from earlier moves.
+     */
+    public String getProgress() {
+        MCNode root = searchRoot;
+        return root == null ? "" : root.visits + " playouts";
+    }
+    
+    /**
+     * Run one iteration: selection, expansion, simulation and
+     * backpropagation.
+     *
+     * @param root        root of the tree
+     * @param random      random number generator of the calling thread
+     * @param virtualLoss visits to add on the selected path while the
+     *                    playout runs, 0 when searching on one thread
+     */
+    private void iterate(MCNode root, Random random, int virtualLoss) {
+        MCNode selectedNode = selection(root, virtualLoss);
+        MCNode expandedNode = expansion(selectedNode, virtualLoss);
+        double result = simulation(expandedNode, random);
+        backpropagation(expandedNode, result, virtualLoss);
+    }
+    
+    /**
+     * Selection: Start at root and select successive child nodes using UCB1
+     * until reaching a node that is not fully expanded or is terminal, or
+     * one whose children are all proved.
+     */
+    private MCNode selection(MCNode node, int virtualLoss) {
+        addVirtualLoss(node, virtualLoss);
+        while (!node.isTerminal()) {
+            if (!node.isFullyExpanded()) {
+                return node;
+            }
+            MCNode child = selectBestChild(node);
+            if (child == null) {
+                return node; // Backpropagation proves it
+            }
+            node = child;
+            addVirtualLoss(node, virtualLoss);
+        }
+        return node;
+    }
+    
+    private static void addVirtualLoss(MCNode node, int virtualLoss) {
+        if (virtualLoss != 0) {
+            node.addVisits(virtualLoss);
+        }
+    }
+    
+    /**
+     * Select the unproved child with the highest UCB1 value, or return null
+     * if every child is proved.  Playouts below a proved node could not
+     * change its result.
+     */
+    private MCNode selectBestChild(MCNode node) {
+        MCNode bestChild = null;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        
+        for (MCNode child : node.children) {
+            if (child.isProven()) {
+                continue;
+            }
+            double ucb1 = child.getUCB1(EXPLORATION_CONSTANT);
+            if (ucb1 > bestValue) {
+                bestValue = ucb1;
+                bestChild = child;
+            }
+        }
+        
+        return bestChild;
+    }
+    
+    /**
+     * Expansion: If the node is not terminal, expand it by creating a new child node
+     * for one of the unexplored moves.
+     */
+    private MCNode expansion(MCNode node, int virtualLoss) {
+        if (node.isTerminal()) {
+            return node;
+        }
+        
+        // Only one thread at a time may add children to a node
+        MCNode newNode;
+        synchronized (node) {
+            newNode = expandUntried(node);
+        }
+        if (newNode != node) {
+            addVirtualLoss(newNode, virtualLoss);
+        }
+        return newNode;
+    }
+    
+    /**
+     * Add a child node for the first legal move of node that has none yet
+     * and return it, or return node if every move has a child.  Moves are
+     * expanded in order, so the next untried move is found in O(1).
+     */
+    private MCNode expandUntried(MCNode node) {
+        CheckersMove[] legalMoves = node.getLegalMoves();
+        if (node.nextUntried >= legalMoves.length) {
+            return node; // Another thread expanded the last move meanwhile
+        }
+        
+        // Create new child node for the next unexplored move
+        CheckersMove move = legalMoves[node.nextUntried];
+        CheckersData newState = copyBoard(node.state);
+        newState.makeMove(move);
+        MCNode newNode = new MCNode(newState, move, node, !node.isBlackTurn);
+        node.children.add(newNode);
+        node.nextUntried++;
+        return newNode;
+    }
+    
+    /**
+     * Simulation (Playout): From the given node, simulate a random game until terminal state,
+     * or until the endgame tables know the result.
+     * Returns the result from BLACK's perspective: 1 for win, 0 for loss, 0.5 for draw.
+     */
+    double simulation(MCNode node, Random random) {
+        Playout playout = PLAYOUTS.get();
+        CheckersData simState = playout.board;
+        long[] moves = playout.moves;
+        simState.copyFrom(node.state);
+        boolean currentTurn = node.isBlackTurn;
+        int moveCount = 0;
+        int maxMoves = 200; // Prevent infinite games
+        
+        while (moveCount < maxMoves) {
+            int player = currentTurn ? CheckersData.BLACK : CheckersData.RED;
+            if (Integer.bitCount(simState.red | simState.black) <= tablebase.maxPieces()) {
+                // Few enough pieces to look up the result instead of playing on
+                int result = tablebase.probe(simState, player);
+                if (result != Tablebase.UNKNOWN) {
+                    return result == 0 ? 0.5 : (result > 0) == currentTurn ? 1.0 : 0.0;
+                }
+            }
+            int count = simState.generateMoves(player, moves);
+            
+            if (count == 0) {
+                // Current player has no legal moves - opponent wins
+                return currentTurn ? 0.0 : 1.0;
+            }
+            
+            // Random move selection, from the same moves in the same order
+            // as getLegalMoves() would give
+            simState.makeMove(moves[random.nextInt(count)]);
+            
+            currentTurn = !currentTurn;
+            moveCount++;
+        }
+        
+        // If we reach max moves, consider it a draw
+        return 0.5;
+    }
+    
+    /**
+     * Backpropagation: Update all nodes on the path from the expanded node to the root
+     * with the simulation result.  If the expanded node is proved (it is
+     * terminal or in the endgame tables) the proof is carried up the path
+     * as far as it decides the parents (MCTS-Solver).
+     */
+    private void backpropagation(MCNode node, double result, int virtualLoss) {
+        boolean proved = node.updateProof() || proveFromTablebase(node);
+        while (node != null) {
+            // The virtual loss already counted as visits
+            node.addVisits(1 - virtualLoss);
+            // For BLACK nodes, add result directly
+            // For RED nodes, add (1 - result) since they want opposite outcome
+            if (node.isBlackTurn) {
+                node.addWins(result);
+            } else {
+                node.addWins(1.0 - result);
+            }
+            MCNode parent = node.parent;
+            if (proved && parent != null) {
+                // A parent can only become proved through a newly proved child
+                proved = parent.updateProof();
+            }
+            node = parent;
+        }
+    }
+    
+    /**
+     * Prove the node from the endgame tables if they hold its position and
+     * it is not a draw.  Return true if the node has just been proved.
+     */
+    private boolean proveFromTablebase(MCNode node) {
+        CheckersData state = node.state;
+        if (node.isProven() || Integer.bitCount(state.red | state.black) > tablebase.maxPieces()) {
+            return false;
+        }
+        int result = tablebase.probe(state, node.isBlackTurn ? CheckersData.BLACK : CheckersData.RED);
+        if (result == Tablebase.UNKNOWN || result == 0) {
+            return false;
+        }
+        // A win in d plies is d, a loss in d plies -(d + 1)
+        node.prove(result > 0 ? MCNode.WIN : MCNode.LOSS, result > 0 ? result : -result - 1);
+        return true;
+    }
+    
+    /**
+     * Select the best move from root's children based on visit count.  A
+     * move to a child proved lost for the opponent wins and is played
+     * instead, the quickest such win first, so that a won endgame makes
+     * progress.  Moves proved to lose are played only if all of them do,
+     * the slowest loss first.
+     */
+    private CheckersMove selectBestMove(MCNode root) {
+        MCNode bestChild = null;
+        MCNode quickestWin = null;
+        MCNode slowestLoss = null;
+        int maxVisits = -1;
+        
+        for (MCNode child : root.children) {
+            int result = child.proven;  // Read before provenPlies, see MCNode.prove()
+            if (result == MCNode.LOSS) {
+                if (quickestWin == null || child.provenPlies < quickestWin.provenPlies) {
+                    quickestWin = child;
+                }
+                continue;
+            }
+            if (result == MCNode.WIN) {
+                if (slowestLoss == null || child.provenPlies > slowestLoss.provenPlies) {
+                    slowestLoss = child;
+                }
+                continue;
+            }
+            if (child.visits > maxVisits) {
+                maxVisits = child.visits;
+                bestChild = child;
+            }
+        }
+        
+        if (quickestWin != null) {
+            bestChild = quickestWin;
+        } else if (bestChild == null) {
+            bestChild = slowestLoss; // Every move loses
+        }
+        return bestChild != null ? bestChild.move : null;
+    }
+    
+    /**
+     * Check if two moves are equal.
+     */
+    private boolean movesEqual(CheckersMove m1, CheckersMove m2) {
+        if (m1 == null || m2 == null) {
+            return m1 == m2;
+        }
+        
+        if (m1.rows.size() != m2.rows.size() || m1.cols.size() != m2.cols.size()) {
+            return false;
+        }
+        
+        for (int i = 0; i < m1.rows.size(); i++) {
+            if (!m1.rows.get(i).equals(m2.rows.get(i)) || !m1.cols.get(i).equals(m2.cols.get(i))) {
+                return false;
+            }
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Create a deep copy of the board.
+     */
+    private CheckersData copyBoard(CheckersData original) {
+        return new CheckersData(original);
+    }
+
+}
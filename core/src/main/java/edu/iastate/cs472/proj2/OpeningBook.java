@@ -0,0 +1,301 @@
+package edu.iastate.cs472.proj2;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * An opening book: the best moves in every position of the first plies
+ * of the game, searched deeply once so that the engines can play them at
+ * once.
+ *
+ * Usage: java edu.iastate.cs472.proj2.OpeningBook [plies] [depth] [file] [threads]
+ *
+ * builds the book for every position reachable in fewer than the given
+ * number of plies (default 6) from the start of the game, searching each
+ * with AlphaBetaSearch to the given depth (default 10), and writes it to
+ * the file (default "book.bin") using one thread per processor unless
+ * told otherwise.
+ *
+ * Like the searches, the book sees every position with BLACK to move: a
+ * position with RED to move is entered as its mirror image (see
+ * CheckersData.mirror()), so it serves an engine playing either color.
+ * Each move within WINDOW of the best is kept, with a weight that falls
+ * off exponentially with its distance from the best score.
+ *
+ * The file holds the magic number, the number of entries and then the
+ * entries, sorted by key and by weight from heaviest within a key: the
+ * 64-bit hash of the position (see key()), then the move's index in
+ * getLegalMoves() in the high 16 bits of an int and its weight in the
+ * low 16 bits.  It is memory-mapped and searched by binary search.
+ */
+public class OpeningBook {
+
+    private static final int MAGIC = 0x43424B31;       // "CBK1"
+    private static final int HEADER_BYTES = 8;         // Magic number and entry count
+    private static final int ENTRY_BYTES = 12;         // Key and move/weight
+    private static final double WINDOW = 0.05;         // Moves kept within this of the best score
+    private static final double TEMPERATURE = 0.01;    // Score difference that divides a weight by e
+    private static final int MAX_WEIGHT = 1000;        // Weight of the best move
+    private static final int TABLE_MB = 16;            // Transposition table of each building search
+
+    private static OpeningBook defaultBook;
+
+    private final ByteBuffer entries;  // Sorted entries, null for an empty book
+    private final int size;            // Number of entries
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int plies = args.length > 0 ? Integer.parseInt(args[0]) : 6;
+        int depth = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        Path file = Paths.get(args.length > 2 ? args[2] : "book.bin");
+        int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        build(plies, depth, file, threads);
+    }
+
+    private OpeningBook(ByteBuffer entries, int size) {
+        this.entries = entries;
+        this.size = size;
+    }
+
+    /**
+     * Return the book in the file named by the system property
+     * checkers.book (default "book.bin"), loaded on first use.  If there
+     * is no such file the book is empty.
+     */
+    static synchronized OpeningBook getDefault() {
+        if (defaultBook == null) {
+            try {
+                defaultBook = open(Paths.get(System.getProperty("checkers.book", "book.bin")));
+            } catch (IOException e) {
+                System.err.println("Opening book not loaded: " + e);
+                defaultBook = new OpeningBook(null, 0);
+            }
+        }
+        return defaultBook;
+    }
+
+    /**
+     * Map the book file into memory.  A missing file gives an empty book.
+     */
+    static OpeningBook open(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return new OpeningBook(null, 0);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (channel.size() < HEADER_BYTES || buffer.getInt(0) != MAGIC
+                    || channel.size() != HEADER_BYTES + (long) buffer.getInt(4) * ENTRY_BYTES) {
+                throw new IOException("Not an opening book: " + file);
+            }
+            return new OpeningBook(buffer, buffer.getInt(4));
+        }
+    }
+
+    /**
+     * Return the number of moves in the book.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Return the book move for the position with BLACK to move, or null
+     * if it is not in the book.  With a random number generator the move
+     * is drawn from the book moves by weight, otherwise it is the best.
+     *
+     * @param legalMoves the legal moves for BLACK, as getLegalMoves() gives them
+     * @param random     random number generator, or null for the best move
+     */
+    CheckersMove choose(CheckersData board, CheckersMove[] legalMoves, Random random) {
+        if (size == 0 || legalMoves == null) {
+            return null;
+        }
+        long key = key(board);
+        int first = find(key);
+        if (first == size || keyAt(first) != key) {
+            return null;
+        }
+        int end = first;
+        int total = 0;
+        while (end < size && keyAt(end) == key) {
+            total += entries.getInt(HEADER_BYTES + end * ENTRY_BYTES + 8) & 0xFFFF;
+            end++;
+        }
+        int i = first;  // The heaviest
+        if (random != null) {
+            int pick = random.nextInt(total);
+            while ((pick -= entries.getInt(HEADER_BYTES + i * ENTRY_BYTES + 8) & 0xFFFF) >= 0) {
+                i++;
+            }
+        }
+        int move = entries.getInt(HEADER_BYTES + i * ENTRY_BYTES + 8) >>> 16;
+        return move < legalMoves.length ? legalMoves[move] : null;
+    }
+
+    /**
+     * Return the index of the first entry with a key at least key.
+     */
+    private int find(long key) {
+        int low = 0, high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keyAt(mid) < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private long keyAt(int entry) {
+        return entries.getLong(HEADER_BYTES + entry * ENTRY_BYTES);
+    }
+
+    /**
+     * Return the book's hash of the pieces on the board.  It depends only
+     * on the bitboards, not on the Zobrist keys of this build.
+     */
+    static long key(CheckersData board) {
+        return mix(((long) board.black << 32) | (board.red & 0xFFFFFFFFL)) ^ mix(board.kings + 0x9E3779B97F4A7C15L);
+    }
+
+    /**
+     * The finalizer of SplitMix64: spreads the bits of x over the result.
+     */
+    private static long mix(long x) {
+        x = (x ^ (x >>> 30)) * 0xBF58476D1CE4E5B9L;
+        x = (x ^ (x >>> 27)) * 0x94D049BB133111EBL;
+        return x ^ (x >>> 31);
+    }
+
+    /**
+     * Search every position of the first plies and write the book.
+     */
+    static void build(int plies, int depth, Path file, int threads) throws IOException, InterruptedException {
+        ArrayList<CheckersData> positions = positions(plies);
+        System.out.println(positions.size() + " positions to search to depth " + depth);
+
+        // Each thread takes every threads-th position with its own search
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        ArrayList<Future<ArrayList<long[]>>> tasks = new ArrayList<Future<ArrayList<long[]>>>();
+        for (int t = 0; t < threads; t++) {
+            int part = t;
+            tasks.add(pool.submit(() -> {
+                AlphaBetaSearch search = new AlphaBetaSearch(TABLE_MB);
+                search.setPrintBoard(false);
+                search.setMoveTime(0);
+                search.setDepthLimit(depth);
+                search.setScoreAllMoves(true);
+                search.setOpeningBook(new OpeningBook(null, 0));
+                ArrayList<long[]> found = new ArrayList<long[]>();
+                for (int i = part; i < positions.size(); i += threads) {
+                    addEntries(search, positions.get(i), found);
+                }
+                return found;
+            }));
+        }
+        ArrayList<long[]> found = new ArrayList<long[]>();
+        try {
+            for (Future<ArrayList<long[]>> task : tasks) {
+                found.addAll(task.get());
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("book search failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+
+        // By key, then heaviest first
+        long[][] sorted = found.toArray(new long[0][]);
+        Arrays.sort(sorted, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0])
+                : Integer.compare((int) b[1] & 0xFFFF, (int) a[1] & 0xFFFF));
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(sorted.length);
+            for (long[] entry : sorted) {
+                out.writeLong(entry[0]);
+                out.writeInt((int) entry[1]);
+            }
+        }
+        System.out.println(sorted.length + " moves written to " + file);
+    }
+
+    /**
+     * Return the positions, seen with BLACK to move, reachable in fewer
+     * than the given number of plies from the start, each once.
+     */
+    static ArrayList<CheckersData> positions(int plies) {
+        ArrayList<CheckersData> positions = new ArrayList<CheckersData>();
+        HashSet<Long> seen = new HashSet<Long>();
+        ArrayList<CheckersData> level = new ArrayList<CheckersData>();
+        level.add(new CheckersData());
+        int player = CheckersData.RED;
+        for (int ply = 0; ply < plies; ply++) {
+            ArrayList<CheckersData> next = new ArrayList<CheckersData>();
+            HashSet<Long> nextSeen = new HashSet<Long>();
+            for (CheckersData board : level) {
+                CheckersData view = player == CheckersData.BLACK ? board : board.mirror();
+                if (seen.add(key(view))) {
+                    positions.add(view);
+                }
+                CheckersMove[] moves = board.getLegalMoves(player);
+                for (int i = 0; moves != null && i < moves.length; i++) {
+                    CheckersData child = new CheckersData(board);
+                    child.makeMove(moves[i]);
+                    if (nextSeen.add(key(child))) {
+                        next.add(child);
+                    }
+                }
+            }
+            level = next;
+            player = player == CheckersData.RED ? CheckersData.BLACK : CheckersData.RED;
+        }
+        return positions;
+    }
+
+    /**
+     * Search the position and add an entry {key, move << 16 | weight}
+     * for each move worth keeping.
+     */
+    private static void addEntries(AlphaBetaSearch search, CheckersData position, ArrayList<long[]> found) {
+        CheckersMove[] legalMoves = position.getLegalMoves(CheckersData.BLACK);
+        if (legalMoves == null) {
+            return;
+        }
+        long key = key(position);
+        search.newGame();
+        search.setCheckersData(new CheckersData(position));
+        CheckersMove best = search.makeMove(legalMoves);
+        double[] scores = search.getRootScores();
+        if (scores.length == 0) {
+            // Only one move
+            found.add(new long[] {key, MAX_WEIGHT});
+            return;
+        }
+        double bestScore = Double.NEGATIVE_INFINITY;
+        for (double score : scores) {
+            bestScore = Math.max(bestScore, score);
+        }
+        for (int i = 0; i < legalMoves.length; i++) {
+            if (legalMoves[i] == best || scores[i] >= bestScore - WINDOW) {
+                int weight = (int) Math.max(1, Math.round(MAX_WEIGHT * Math.exp((scores[i] - bestScore) / TEMPERATURE)));
+                found.add(new long[] {key, (long) i << 16 | weight});
+            }
+        }
+    }
+}
@@ -0,0 +1,397 @@
+package edu.iastate.cs472.proj2;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Endgame tablebases: the exact result of every position with few enough
+ * pieces, with the distance to the end of the game.
+ *
+ * Usage: java edu.iastate.cs472.proj2.Tablebase [pieces] [directory] [threads]
+ *
+ * generates the tables for all positions with up to the given number of
+ * pieces (default 4) into the directory (default "tablebase"), using one
+ * thread per processor unless told otherwise.
+ *
+ * Positions are stored with the side to move as BLACK; a position with
+ * RED to move is looked up as its mirror image (see CheckersData.mirror()).
+ * There is one file per material slice (the numbers of men and kings of
+ * the side to move and of the other side), holding one byte per position
+ * at its index in the slice.  The index ranks the squares of each kind of
+ * piece in the combinatorial number system: the men first, each side's
+ * over the 28 squares a man can stand on, then the kings over the squares
+ * left empty.  Only layouts where men of both sides share a square are
+ * wasted.
+ *
+ * A byte holds the result for the side to move: 0 for a draw, d for a
+ * win in d plies and -(d + 1) for a loss in d plies.  A player who cannot
+ * move has lost in 0 plies.
+ *
+ * The tables are generated by retrograde analysis, one group of slices
+ * with the same numbers of pieces and of men at a time; captures and
+ * crowning only lead to groups already solved.  Pass d finds the wins and
+ * losses in exactly d plies, each pass running on several threads, until
+ * no more are found.  Positions never resolved are draws.
+ */
+public class Tablebase {
+
+    static final int UNKNOWN = 128;  // probe() result for a position not in the tables
+
+    // Slice sizes and indexes are ints: the largest 7-piece slice has
+    // about 1.5e9 positions, while some 8-piece slices pass 2^31
+    private static final int MAX_PIECES = 7;
+    private static final int[][] CHOOSE = new int[33][33];
+
+    static {
+        for (int n = 0; n <= 32; n++) {
+            CHOOSE[n][0] = 1;
+            for (int k = 1; k <= n; k++) {
+                CHOOSE[n][k] = CHOOSE[n - 1][k - 1] + (k < n ? CHOOSE[n - 1][k] : 0);
+            }
+        }
+    }
+
+    private static Tablebase defaultTablebase;
+
+    private final ByteBuffer[] slices = new ByteBuffer[1 << 16];  // By material key, null if missing
+    private int maxPieces;  // Most pieces in any slice present
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int pieces = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        Path directory = Paths.get(args.length > 1 ? args[1] : "tablebase");
+        int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        generate(pieces, directory, threads);
+    }
+
+    /**
+     * Return the tables in the directory named by the system property
+     * checkers.tablebase (default "tablebase"), loaded on first use.  If
+     * there are none, every probe finds nothing.
+     */
+    static synchronized Tablebase getDefault() {
+        if (defaultTablebase == null) {
+            try {
+                defaultTablebase = open(Paths.get(System.getProperty("checkers.tablebase", "tablebase")));
+            } catch (IOException e) {
+                System.err.println("Tablebase not loaded: " + e);
+                defaultTablebase = new Tablebase();
+            }
+        }
+        return defaultTablebase;
+    }
+
+    /**
+     * Map every table file in the directory into memory.  A missing
+     * directory gives empty tables.
+     */
+    static Tablebase open(Path directory) throws IOException {
+        Tablebase tablebase = new Tablebase();
+        if (!Files.isDirectory(directory)) {
+            return tablebase;
+        }
+        for (int key = 0; key < tablebase.slices.length; key++) {
+            int ownMen = key & 15, ownKings = (key >> 4) & 15, oppMen = (key >> 8) & 15, oppKings = key >> 12;
+            int pieces = ownMen + ownKings + oppMen + oppKings;
+            Path file = directory.resolve(fileName(key));
+            if (pieces > MAX_PIECES || ownMen + ownKings == 0 || oppMen + oppKings == 0
+                    || ownMen > 12 || oppMen > 12 || !Files.isRegularFile(file)) {
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                if (channel.size() != sliceSize(ownMen, ownKings, oppMen, oppKings)) {
+                    throw new IOException("Wrong size for " + file);
+                }
+                tablebase.slices[key] = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            tablebase.maxPieces = Math.max(tablebase.maxPieces, pieces);
+        }
+        return tablebase;
+    }
+
+    /**
+     * Return the most pieces of any position in the tables, 0 if empty.
+     */
+    int maxPieces() {
+        return maxPieces;
+    }
+
+    /**
+     * Return the result of the position for the player to move, encoded
+     * as described above, or UNKNOWN if it is not in the tables.
+     */
+    int probe(CheckersData board, int player) {
+        if (Integer.bitCount(board.red | board.black) > maxPieces) {
+            return UNKNOWN;
+        }
+        if (player == CheckersData.BLACK) {
+            return probe(board.black, board.red, board.kings);
+        }
+        return probe(Integer.reverse(board.red), Integer.reverse(board.black), Integer.reverse(board.kings));
+    }
+
+    /**
+     * Look up a position given with the side to move as BLACK: own moves
+     * down the board, opp up.
+     */
+    private int probe(int own, int opp, int kings) {
+        if (own == 0) {
+            return -1;  // No pieces, so no moves: lost
+        }
+        ByteBuffer slice = slices[materialKey(own, opp, kings)];
+        if (opp == 0 || slice == null) {
+            return UNKNOWN;
+        }
+        return slice.get(index(own & ~kings, own & kings, opp & ~kings, opp & kings));
+    }
+
+    /**
+     * Return the result for the side to move of a successor position
+     * during generation: found in the slices solved so far, or 0 while
+     * it is unresolved.
+     */
+    private static int lookup(byte[][] values, int own, int opp, int kings) {
+        if (own == 0) {
+            return -1;
+        }
+        return values[materialKey(own, opp, kings)][index(own & ~kings, own & kings, opp & ~kings, opp & kings)];
+    }
+
+    private static int materialKey(int own, int opp, int kings) {
+        return Integer.bitCount(own & ~kings) | Integer.bitCount(own & kings) << 4
+                | Integer.bitCount(opp & ~kings) << 8 | Integer.bitCount(opp & kings) << 12;
+    }
+
+    private static String fileName(int key) {
+        return "" + (key & 15) + ((key >> 4) & 15) + ((key >> 8) & 15) + (key >> 12) + ".tb";
+    }
+
+    /**
+     * Return the number of indexes in the slice.  The side to move's men
+     * can stand on squares 0-27, the other side's on squares 4-31.
+     */
+    static int sliceSize(int ownMen, int ownKings, int oppMen, int oppKings) {
+        int free = 32 - ownMen - oppMen;
+        return CHOOSE[28][ownMen] * CHOOSE[28][oppMen] * CHOOSE[free][ownKings] * CHOOSE[free - ownKings][oppKings];
+    }
+
+    /**
+     * Return the index of the position in its slice.
+     */
+    static int index(int ownMen, int ownKings, int oppMen, int oppKings) {
+        int men = Integer.bitCount(ownMen), kings = Integer.bitCount(ownKings);
+        int free = 32 - men - Integer.bitCount(oppMen);
+        int occupied = ownMen | oppMen;
+        int index = rank(ownMen, 0);
+        index = index * CHOOSE[28][Integer.bitCount(oppMen)] + rank(oppMen >>> 4, 0);
+        index = index * CHOOSE[free][kings] + rank(ownKings, occupied);
+        index = index * CHOOSE[free - kings][Integer.bitCount(oppKings)] + rank(oppKings, occupied | ownKings);
+        return index;
+    }
+
+    /**
+     * Rank the set of squares among all sets of the same size, counting
+     * only the squares not in skip.
+     */
+    private static int rank(int squares, int skip) {
+        int rank = 0;
+        for (int i = 1; squares != 0; i++) {
+            int sq = Integer.numberOfTrailingZeros(squares);
+            squares &= squares - 1;
+            rank += CHOOSE[sq - Integer.bitCount(skip & ((1 << sq) - 1))][i];
+        }
+        return rank;
+    }
+
+    /**
+     * Return the set of count squares with the given rank, the inverse of
+     * rank(), as a set over the squares not in skip.
+     */
+    private static int unrank(int rank, int count, int skip) {
+        int compressed = 0;
+        for (int i = count, sq = 31; i > 0; i--) {
+            while (CHOOSE[sq][i] > rank) {
+                sq--;
+            }
+            rank -= CHOOSE[sq][i];
+            compressed |= 1 << sq;
+        }
+        // Spread the squares over those not skipped
+        int squares = 0;
+        for (int sq = 0, n = 0; n < 32 && compressed >>> n != 0; sq++) {
+            if ((skip & (1 << sq)) == 0) {
+                if ((compressed & (1 << n)) != 0) {
+                    squares |= 1 << sq;
+                }
+                n++;
+            }
+        }
+        return squares;
+    }
+
+    /**
+     * Solve every position with up to the given number of pieces and
+     * write the tables to the directory.
+     */
+    static void generate(int pieces, Path directory, int threads) throws IOException, InterruptedException {
+        if (pieces < 2 || pieces > MAX_PIECES) {
+            throw new IllegalArgumentException("Pieces must be from 2 to " + MAX_PIECES);
+        }
+        Files.createDirectories(directory);
+        byte[][] values = new byte[1 << 16][];
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        int longest = 0;  // Longest win or loss in the groups solved so far
+        try {
+            for (int total = 2; total <= pieces; total++) {
+                for (int men = 0; men <= total; men++) {
+                    ArrayList<Integer> group = new ArrayList<Integer>();
+                    for (int ownMen = 0; ownMen <= men; ownMen++) {
+                        for (int ownKings = 0; ownKings <= total - men; ownKings++) {
+                            int oppMen = men - ownMen, oppKings = total - men - ownKings;
+                            if (ownMen + ownKings > 0 && oppMen + oppKings > 0 && ownMen <= 12 && oppMen <= 12) {
+                                int key = ownMen | ownKings << 4 | oppMen << 8 | oppKings << 12;
+                                values[key] = new byte[sliceSize(ownMen, ownKings, oppMen, oppKings)];
+                                group.add(key);
+                            }
+                        }
+                    }
+                    longest = Math.max(longest, solve(group, values, pool, threads, longest));
+                    for (int key : group) {
+                        Files.write(directory.resolve(fileName(key)), values[key]);
+                        report(key, values[key]);
+                    }
+                }
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("generation failed", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Solve the slices of one group in passes, and return the longest
+     * distance found.  Pass d only reads results of fewer than d plies,
+     * so the threads of a pass need not be ordered.
+     */
+    private static int solve(ArrayList<Integer> group, byte[][] values, ExecutorService pool, int threads,
+                             int longestBefore) throws InterruptedException, ExecutionException {
+        int longest = 0;
+        for (int pass = 0; pass < 128; pass++) {
+            ArrayList<Future<Integer>> tasks = new ArrayList<Future<Integer>>();
+            for (int key : group) {
+                for (int t = 0; t < threads; t++) {
+                    int part = t, d = pass;
+                    tasks.add(pool.submit(() -> solvePart(key, values, d, part, threads)));
+                }
+            }
+            int found = 0;
+            for (Future<Integer> task : tasks) {
+                found += task.get();
+            }
+            if (found > 0) {
+                longest = pass;
+            } else if (pass > longestBefore + 1) {
+                break;  // Any longer result would need a longer one in an earlier group
+            }
+        }
+        return longest;
+    }
+
+    /**
+     * Run pass d on every threads-th position of the slice starting at
+     * part, and return the number of positions resolved.
+     */
+    private static int solvePart(int key, byte[][] values, int d, int part, int threads) {
+        int ownMen = key & 15, ownKings = (key >> 4) & 15, oppMen = (key >> 8) & 15, oppKings = key >> 12;
+        int free = 32 - ownMen - oppMen;
+        int ownKingsSize = CHOOSE[free][ownKings], oppKingsSize = CHOOSE[free - ownKings][oppKings];
+        int oppMenSize = CHOOSE[28][oppMen];
+        byte[] slice = values[key];
+        CheckersData board = new CheckersData();
+        long[] moves = new long[CheckersData.MAX_MOVES];
+        int resolved = 0;
+
+        for (int index = part; index < slice.length; index += threads) {
+            if (slice[index] != 0) {
+                continue;
+            }
+            int rest = index;
+            int oppKingsRank = rest % oppKingsSize;
+            rest /= oppKingsSize;
+            int ownKingsRank = rest % ownKingsSize;
+            rest /= ownKingsSize;
+            int own = unrank(rest / oppMenSize, ownMen, 0);
+            int opp = unrank(rest % oppMenSize, oppMen, 0) << 4;
+            if ((own & opp) != 0) {
+                continue;  // Not a position
+            }
+            int kings = unrank(ownKingsRank, ownKings, own | opp);
+            own |= kings;
+            int oppKingSquares = unrank(oppKingsRank, oppKings, own | opp);
+            opp |= oppKingSquares;
+            kings |= oppKingSquares;
+
+            board.black = own;
+            board.red = opp;
+            board.kings = kings;
+            int count = board.generateMoves(CheckersData.BLACK, moves);
+            int value = 0;
+            if (count == 0) {
+                value = d == 0 ? -1 : 0;  // Lost in 0 plies
+            } else if (d > 0) {
+                boolean allLost = true;  // Every move leads to a win for the opponent
+                int longest = 0;
+                for (int i = 0; i < count; i++) {
+                    int undo = board.makeMove(moves[i]);
+                    int reply = lookup(values, Integer.reverse(board.red), Integer.reverse(board.black),
+                            Integer.reverse(board.kings));
+                    board.unmakeMove(moves[i], undo);
+                    if (reply == -d) {
+                        value = d;  // The opponent loses in d - 1 plies
+                        break;
+                    }
+                    if (reply <= 0 || reply >= d) {
+                        allLost = false;
+                    }
+                    longest = Math.max(longest, reply);
+                }
+                if (value == 0 && allLost && longest == d - 1) {
+                    value = -(d + 1);
+                }
+            }
+            if (value != 0) {
+                slice[index] = (byte) value;
+                resolved++;
+            }
+        }
+        return resolved;
+    }
+
+    private static void report(int key, byte[] slice) {
+        long wins = 0, losses = 0, draws = 0;
+        int longest = 0;
+        for (byte value : slice) {
+            if (value > 0) {
+                wins++;
+                longest = Math.max(longest, value);
+            } else if (value < 0) {
+                losses++;
+                longest = Math.max(longest, -value - 1);
+            } else {
+                draws++;
+            }
+        }
+        System.out.printf("%s %10d positions %10d won %10d lost %10d drawn or unused, longest %d plies%n",
+                fileName(key), slice.length, wins, losses, draws, longest);
+    }
+}
@@ -0,0 +1,113 @@
+package edu.iastate.cs472.proj2;
+
+/**
+ * A fixed-size hash table of search results for AlphaBetaSearch, indexed
+ * by the Zobrist key of CheckersData.
+ *
+ * Each entry stores the remaining search depth, the kind of bound the
+ * score represents, the score itself and the index of the best move in
+ * the order produced by CheckersData.generateMoves().  When two positions
+ * map to the same slot, the entry searched to the greater depth is kept,
+ * unless it is left over from an earlier search.
+ *
+ * An entry is two longs: the key XORed with the data word, and the data
+ * word itself, which packs the score (as a float) with the depth, bound,
+ * move and age.  A reader recomputes the key from both words, so a torn
+ * entry simply reads as a miss.
+ */
+public class TranspositionTable {
+
+    static final int
+            EXACT = 1,  // the score is the exact minimax value
+            LOWER = 2,  // the search failed high: the value is at least the score
+            UPPER = 3;  // the search failed low: the value is at most the score
+
+    static final int NO_MOVE = -1;
+
+    private static final int ENTRY_LONGS = 2;
+
+    private final long[] table;
+    private final int mask;  // number of entries - 1, a power of two minus one
+    private int age;         // advanced by newSearch(), 6 bits
+
+    /**
+     * Create a table using at most the given number of megabytes.
+     */
+    public TranspositionTable(int megabytes) {
+        long bytes = Math.max(1, megabytes) * 1024L * 1024L;
+        long entries = Long.highestOneBit(bytes / (ENTRY_LONGS * 8));
+        entries = Math.min(entries, 1 << 26);
+        table = new long[(int) entries * ENTRY_LONGS];
+        mask = (int) entries - 1;
+    }
+
+    /**
+     * Mark the start of a new search.  Entries from earlier searches are
+     * still used, but are replaced regardless of their depth.
+     */
+    void newSearch() {
+        age = (age + 1) & 63;
+    }
+
+    /**
+     * Remove every entry.
+     */
+    void clear() {
+        java.util.Arrays.fill(table, 0);
+    }
+
+    /**
+     * Return the data word stored for the key, or 0 if there is none.
+     * Use depth(), bound(), score() and move() to decode it.
+     */
+    long probe(long key) {
+        int i = index(key);
+        long data = table[i + 1];
+        if ((table[i] ^ data) != key || data == 0) {
+            return 0;
+        }
+        return data;
+    }
+
+    /**
+     * Store a search result, unless the slot holds a deeper result for a
+     * position from the current search.
+     *
+     * @param key       Zobrist key of the position
+     * @param depth     remaining depth that was searched
+     * @param bound     EXACT, LOWER or UPPER
+     * @param score     the score from BLACK's point of view
+     * @param moveIndex index of the best move in generation order, or NO_MOVE
+     */
+    void store(long key, int depth, int bound, double score, int moveIndex) {
+        int i = index(key);
+        long old = table[i + 1];
+        if (old != 0 && ((int) (old >>> 20) & 63) == age && depth < depth(old)) {
+            return;
+        }
+        long data = (depth & 0xFF) | ((long) bound << 8) | ((long) (moveIndex + 1) << 10)
+                | ((long) age << 20) | ((long) Float.floatToRawIntBits((float) score) << 32);
+        table[i] = key ^ data;
+        table[i + 1] = data;
+    }
+
+    static int depth(long data) {
+        return (int) data & 0xFF;
+    }
+
+    static int bound(long data) {
+        return (int) (data >>> 8) & 3;
+    }
+
+    static int move(long data) {
+        return ((int) (data >>> 10) & 0x3FF) - 1;
+    }
+
+    static double score(long data) {
+        return Float.intBitsToFloat((int) (data >>> 32));
+    }
+
+    private int index(long key) {
+        return ((int) key & mask) * ENTRY_LONGS;
+    }
+}
@@ -10,6 +10,9 @@ import java.util.ArrayList;
 import java.util.InputMismatchException;
 //Scanner for the external input.
 import java.util.Scanner;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.Random;
 
@@ -150,15 +153,7 @@ public class Checkers extends JPanel {
     	private CheckersData copyBoard(CheckersData board)
         {
             this.preBoard = board;
-            CheckersData new_board = new CheckersData();
-            for(int i=0; i<board.board.length;i++)
-            {
-                for(int j=0;j<8;j++)
-                {
-                    new_board.board[i][j]=board.pieceAt(i, j);
-                }
-            }
-            return new_board;
+            return new CheckersData(board);
         }
     	
     	public void paintComponent(Graphics g) {
@@ -229,6 +224,19 @@ public class Checkers extends JPanel {
         //   current player.
         AdversarialSearch player_1; // AI player, Alpha-beta
         AdversarialSearch player_2; // MCTS
+        /* The AI searches on its own thread so the window stays responsive.
+           aiTask is the search in progress, or null; results of earlier
+           searches are recognized by searchId and thrown away. */
+        ExecutorService aiExecutor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "AI search");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Future<?> aiTask;
+        Future<?> ponderTask;        // Search on RED's time, or null
+        int searchId;
+        AdversarialSearch thinking;  // The player for BLACK's next or current move
+        Timer progressTimer;         // Shows the progress of the search
         /**
          * Constructor.  Create the buttons and label.  Listens for mouse
          * clicks and for clicks on the buttons.  Create the board and
@@ -247,6 +255,7 @@ public class Checkers extends JPanel {
             message = new JLabel("",JLabel.CENTER);
             message.setFont(new  Font("Serif", Font.BOLD, 14));
             message.setForeground(Color.green);
+            progressTimer = new Timer(200, e -> showProgress());
             board = new CheckersData();
             //Display board
             displayBoard = new CheckersData();
@@ -298,11 +307,12 @@ public class Checkers extends JPanel {
          * Start a new game
          */
         void doNewGame() {
-            if (gameInProgress) {
+            if (gameInProgress && currentPlayer == CheckersData.RED) {
                 // This should not be possible, but it doesn't hurt to check.
                 message.setText("Finish the current game first!");
                 return;
             }
+            cancelSearch();  // A search in progress belongs to the old game
             board.setUpGame();   // Set up the pieces.
             
             //
@@ -316,6 +326,8 @@ public class Checkers extends JPanel {
             selectedRow = -1;   // RED has not yet selected a piece to move.
             message.setText("Red:  Make your move.");
             gameInProgress = true;
+            thinking = nextPlayer();
+            startPonder();
             newGameButton.setEnabled(false);
             resignButton.setEnabled(true);
             
@@ -334,7 +346,10 @@ public class Checkers extends JPanel {
                 message.setText("There is no game in progress!");
                 return;
             }
-            if (currentPlayer == CheckersData.RED)
+            // RED is the only human player, also while BLACK is thinking
+            boolean aiThinking = aiTask != null;
+            cancelSearch();
+            if (currentPlayer == CheckersData.RED || aiThinking)
                 gameOver("RED resigns.  BLACK wins.");
             else
                 gameOver("BLACK resigns.  RED wins.");
@@ -417,49 +432,153 @@ public class Checkers extends JPanel {
             board.makeMove(move);
             agentBoard=copyBoard(board);
             
-            CheckersMove moveAI = new CheckersMove();
              /* The current player's turn is ended, so change to the other player.
                 Get that player's legal moves.  If the player has no legal moves,
                 then the game ends. */
             //Play checkers game on agentboard
             if (currentPlayer == CheckersData.RED) {
+                stopPonder();
                 currentPlayer = CheckersData.BLACK;
                 legalMoves = board.getLegalMoves(currentPlayer);
                 if (legalMoves == null) {
                     gameOver("BLACK has no moves.  RED wins.");
                     displayBoard = copyBoard(board);
-                    previous.drawBoard(board, moveAI);
+                    previous.drawBoard(board, new CheckersMove());
                     repaint();
                     return;
                 } else {
                     message.setText("BLACK:  Now AI's turn.");
                 }
 
-                player_1.setCheckersData(board);
-                player_2.setCheckersData(board);
-                
-                switch(aiKey){
-                case 1: moveAI = player_1.makeMove(legalMoves); break;
-                case 2: moveAI = player_2.makeMove(legalMoves); break;
-                case 3: Random rand = new Random();
-            			if(rand.nextInt(2) == 1)
-            				moveAI = player_1.makeMove(legalMoves); 
-            			else
-            				moveAI = player_2.makeMove(legalMoves); 
+                displayBoard = copyBoard(board);  // Show RED's move while the AI thinks
+                startSearch();  // The turn ends in aiMoveFound()
+                repaint();
+                return;
+            }
+            
+            finishTurn(new CheckersMove());
+        }
+
+
+        /**
+         * Start the search for BLACK's move on the AI thread.  When it is
+         * done, aiMoveFound() makes the move on the event thread.
+         */
+        void startSearch() {
+            // The search gets its own copy, as board changes if the game is abandoned
+            AdversarialSearch player = thinking;
+            CheckersData position = copyBoard(board);
+            CheckersMove[] moves = legalMoves;
+            int id = ++searchId;
+            aiTask = aiExecutor.submit(() -> {
+                try {
+                    player.setCheckersData(position);
+                    CheckersMove moveAI = player.makeMove(moves);
+                    SwingUtilities.invokeLater(() -> {
+                        if (id == searchId)
+                            aiMoveFound(moveAI);
+                    });
+                } catch (RuntimeException e) {
+                    SwingUtilities.invokeLater(() -> {
+                        if (id == searchId) {
+                            cancelSearch();
+                            gameOver("The AI failed: " + e);
+                        }
+                    });
                 }
+            });
+            newGameButton.setEnabled(true);  // New Game may abandon the game while the AI thinks
+            progressTimer.start();
+        }
 
-                board.makeMove(moveAI);
 
-                displayBoard = copyBoard(board);
-                //Add time
-                
-                repaint();
-                
-                //timeDelay(1);
-                //previous.drawBoard(board);
-                
+        /**
+         * Choose the AI player for BLACK's next move.
+         */
+        AdversarialSearch nextPlayer() {
+            switch(aiKey){
+            case 1: return player_1;
+            case 2: return player_2;
+            default: Random rand = new Random();
+        			if(rand.nextInt(2) == 1)
+        				return player_1;
+        			else
+        				return player_2;
+            }
+        }
+
+
+        /**
+         * Let the player for BLACK's next move search on RED's time.  The
+         * work is kept for the search that starts once RED has moved.
+         */
+        void startPonder() {
+            AdversarialSearch player = thinking;
+            CheckersData position = copyBoard(board);
+            ponderTask = aiExecutor.submit(() -> {
+                player.setCheckersData(position);
+                player.ponder();
+            });
+        }
+
+
+        /**
+         * Stop pondering.  The search for BLACK's move, queued on the same
+         * thread, starts as soon as the pondering search has returned.
+         */
+        void stopPonder() {
+            if (ponderTask != null) {
+                ponderTask.cancel(true);
+                ponderTask = null;
             }
+        }
+
+
+        /**
+         * Stop the search in progress and pondering, if any, and make sure
+         * the search's result is never used.  The search notices the
+         * interrupt and returns soon.
+         */
+        void cancelSearch() {
+            stopPonder();
+            if (aiTask != null) {
+                aiTask.cancel(true);
+                aiTask = null;
+            }
+            searchId++;
+            progressTimer.stop();
+        }
+
+
+        /**
+         * Show how far the AI's search has got.
+         */
+        void showProgress() {
+            if (aiTask != null)
+                message.setText("BLACK:  AI is thinking (" + thinking.getProgress() + ")");
+        }
+
+
+        /**
+         * Make the move the AI chose for BLACK and give the turn back to RED.
+         */
+        void aiMoveFound(CheckersMove moveAI) {
+            aiTask = null;
+            progressTimer.stop();
+            newGameButton.setEnabled(false);
+            board.makeMove(moveAI);
+
+            displayBoard = copyBoard(board);
             
+            finishTurn(moveAI);
+        }
+
+
+        /**
+         * End BLACK's turn, which was the move moveAI (empty if BLACK did not
+         * move), and let RED make the next move.
+         */
+        void finishTurn(CheckersMove moveAI) {
             previous.drawBoard(agentBoard, moveAI);
 
             currentPlayer = CheckersData.RED;
@@ -492,9 +611,15 @@ public class Checkers extends JPanel {
                 }
             }
 
+            /* Let the AI think about its next move while RED thinks. */
+            if (legalMoves != null) {
+                thinking = nextPlayer();
+                startPonder();
+            }
+
             /* Make sure the board is redrawn in its new state. */
             repaint();
-        }  // end doMakeMove();
+        }  // end finishTurn();
         /**
          * Draw a checkerboard pattern in gray and lightGray.  Draw the
          * checkers.  If a game is in progress, highlight the legal moves.
@@ -541,10 +666,10 @@ public class Checkers extends JPanel {
                 }
             }
 
-         /* If a game is in progress, highlight the legal moves.   Note that legalMoves
-          is never null while a game is in progress. */
+         /* If a game is in progress, highlight the legal moves, unless the AI is
+          thinking.   Note that legalMoves is never null while a game is in progress. */
 
-            if (gameInProgress) {
+            if (gameInProgress && aiTask == null) {
                 /* First, draw a 2-pixel cyan border around the pieces that can be moved. */
                 g.setColor(Color.cyan);
                 for (CheckersMove legalMove : legalMoves) {
@@ -579,15 +704,9 @@ public class Checkers extends JPanel {
         private CheckersData copyBoard(CheckersData board)
         {
             this.board = board;
-            CheckersData new_board = new CheckersData();
-            for(int i=0; i<board.board.length;i++)
-            {
-                for(int j=0;j<8;j++)
-                {
-                    new_board.board[i][j]=board.pieceAt(i, j);
-                }
-            }
-            return new_board;
+            // The copy constructor keeps the side to move in the Zobrist key,
+            // so the search and pondering see the game board's key
+            return new CheckersData(board);
         }
         /**
          * Respond to a user click on the board.  If no game is in progress, show
@@ -598,6 +717,8 @@ public class Checkers extends JPanel {
         public void mousePressed(MouseEvent evt) {
             if (!gameInProgress)
                 message.setText("Click \"New Game\" to start a new game.");
+            else if (aiTask != null)
+                message.setText("BLACK:  AI is thinking, please wait.");
             else {
                 int col = (evt.getX() - 2) / 20;
                 int row = (evt.getY() - 2) / 20;